@@ -10,7 +10,7 @@ Behavior:
   - Pick category -> pick line -> generate preview -> accept or retry
   - Save accepted line as .ogg in assets/climp/sounds/
   - Keep timestamped backup when replacing existing .ogg
-  - Regenerate ClimpSpeechLibrary, ClimpSoundEvents, and sounds.json from docs/va/voicelines.json
+  - Regenerate the compiled ClimpSpeechLibrary table, ClimpSoundEvents, and sounds.json from docs/va/voicelines.json
 """
 
 from __future__ import annotations
@@ -221,52 +221,95 @@ def iter_entries(data: dict) -> list[tuple[str, str, str, str]]:
 
 
 def build_library_content(data: dict) -> str:
-    blocks: list[str] = []
-    for i, (category_key, (_, enum_name, _)) in enumerate(CATEGORIES.items()):
-        lines = data.get(category_key, [])
-        if lines:
-            line_defs = ",\n".join(
-                f'                    new Line("{escape_java(item["textline"])}", "{item["id"]}")'
-                for item in lines
-            )
-            block = f"            ClimpSpeechType.{enum_name}, List.of(\n{line_defs})"
-        else:
-            block = f"            ClimpSpeechType.{enum_name}, List.of()"
-        if i < len(CATEGORIES) - 1:
-            block += ","
-        blocks.append(block)
-
-    map_body = "\n".join(blocks)
+    entries = iter_entries(data)
+    text_defs = ",\n".join(f'            "{escape_java(textline)}"' for _, _, textline, _ in entries)
+    sound_defs = ",\n".join(
+        f"            ClimpSoundEvents.{sound_id.upper().replace('-', '_')}" for _, _, _, sound_id in entries
+    )
+
+    range_defs: list[str] = []
+    first = 0
+    for category_key, (_, enum_name, _) in CATEGORIES.items():
+        count = len(data.get(category_key, []))
+        range_defs.append(f"        range(ClimpSpeechType.{enum_name}, {first}, {count});")
+        first += count
+    ranges = "\n".join(range_defs)
+
     return f"""package com.asbjborg.climp.speech;
 
-import java.util.List;
-import java.util.Map;
+import com.asbjborg.climp.sound.ClimpSoundEvents;
 
+import net.minecraft.core.Holder;
+import net.minecraft.network.chat.Component;
+import net.minecraft.sounds.SoundEvent;
 import net.minecraft.util.RandomSource;
 
+/**
+ * Compiled speech table, generated by scripts/generate_va.py from docs/va/voicelines.json (the single
+ * source of truth; do not edit by hand). Every line has an int id; a type's lines are the contiguous ids
+ * {{@code first..first+count-1}}, and the chat message and sound of a line are array lookups by id, so
+ * picking and sending a line allocates nothing.
+ */
 public final class ClimpSpeechLibrary {{
-    /** Single source of truth: each line defines its text and the sound file name (e.g. climp_idle_1.ogg). */
-    public record Line(String text, String soundId) {{}}
+    public static final int NO_LINE = -1;
+
+    private static final String[] TEXTS = {{
+{text_defs}
+    }};
+
+    @SuppressWarnings("unchecked")
+    private static final Holder<SoundEvent>[] SOUNDS = (Holder<SoundEvent>[]) new Holder<?>[] {{
+{sound_defs}
+    }};
 
-    private static final Map<ClimpSpeechType, List<Line>> LINES = Map.of(
-{map_body});
+    /** Spoken when a type has no lines. */
+    private static final int FALLBACK_LINE = TEXTS.length;
+    private static final Component FALLBACK_MESSAGE = Component.literal("Climp: ...");
+
+    private static final Component[] MESSAGES = new Component[TEXTS.length];
+    private static final int[] FIRST_LINE = new int[ClimpSpeechType.values().length];
+    private static final int[] LINE_COUNT = new int[ClimpSpeechType.values().length];
+
+    static {{
+        for (int lineId = 0; lineId < TEXTS.length; lineId++) {{
+            MESSAGES[lineId] = Component.literal("Climp: " + TEXTS[lineId]);
+        }}
+{ranges}
+    }}
 
     private ClimpSpeechLibrary() {{
     }}
 
+    private static void range(ClimpSpeechType type, int first, int count) {{
+        FIRST_LINE[type.ordinal()] = first;
+        LINE_COUNT[type.ordinal()] = count;
+    }}
+
     /**
-     * Picks a random line for the given speech type. Never returns the excluded soundId if another
-     * option exists, so the same line is not repeated twice in a row.
+     * Picks a random line id for the given speech type. Never returns the excluded line if another
+     * option exists, so the same line is not repeated twice in a row: the pick is drawn from one fewer
+     * ids and shifted past the excluded one.
      */
-    public static Line randomLine(ClimpSpeechType type, RandomSource random, String excludeSoundId) {{
-        List<Line> lines = LINES.get(type);
-        if (lines == null || lines.isEmpty()) {{
-            return new Line("...", "climp_idle_1");
+    public static int randomLine(ClimpSpeechType type, RandomSource random, int excludeLineId) {{
+        int first = FIRST_LINE[type.ordinal()];
+        int count = LINE_COUNT[type.ordinal()];
+        if (count == 0) {{
+            return FALLBACK_LINE;
+        }}
+        if (count == 1 || excludeLineId < first || excludeLineId >= first + count) {{
+            return first + random.nextInt(count);
         }}
-        List<Line> candidates = excludeSoundId != null && lines.size() > 1
-                ? lines.stream().filter(l -> !l.soundId().equals(excludeSoundId)).toList()
-                : lines;
-        return candidates.get(random.nextInt(candidates.size()));
+        int lineId = first + random.nextInt(count - 1);
+        return lineId >= excludeLineId ? lineId + 1 : lineId;
+    }}
+
+    /** The chat message for the line, already prefixed with the speaker. */
+    public static Component message(int lineId) {{
+        return lineId == FALLBACK_LINE ? FALLBACK_MESSAGE : MESSAGES[lineId];
+    }}
+
+    public static Holder<SoundEvent> sound(int lineId) {{
+        return lineId == FALLBACK_LINE ? ClimpSoundEvents.CLIMP_IDLE_1 : SOUNDS[lineId];
     }}
 }}
 """
@@ -274,7 +317,6 @@ public final class ClimpSpeechLibrary {{
 
 def build_sound_events_content(data: dict) -> str:
     sections: list[str] = []
-    map_entries: list[str] = []
 
     for category_key, (_, enum_name, _) in CATEGORIES.items():
         items = data.get(category_key, [])
@@ -287,26 +329,22 @@ def build_sound_events_content(data: dict) -> str:
             section_lines.append(
                 f'    public static final DeferredHolder<SoundEvent, SoundEvent> {var_name} = reg("{item["id"]}");'
             )
-            map_entries.append(f'            Map.entry("{item["id"]}", {var_name})')
         sections.append("\n".join(section_lines))
 
-    entries_joined = ",\n".join(map_entries)
     sections_joined = "\n\n".join(sections)
 
     return f"""package com.asbjborg.climp.sound;
 
-import java.util.Map;
-
 import com.asbjborg.climp.ClimpMod;
 
-import net.minecraft.core.Holder;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.sounds.SoundEvent;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredRegister;
 
 /**
- * Sound events for Climp voice lines. One event per line (e.g., climp_idle_1, climp_idle_2).
+ * Sound events for Climp voice lines. One event per line (e.g., climp_idle_1, climp_idle_2); speech looks
+ * them up by line id through {{@link com.asbjborg.climp.speech.ClimpSpeechLibrary}}.
  */
 public final class ClimpSoundEvents {{
     public static final DeferredRegister<SoundEvent> SOUND_EVENTS =
@@ -314,21 +352,12 @@ public final class ClimpSoundEvents {{
 
 {sections_joined}
 
-    private static final Map<String, Holder<SoundEvent>> BY_SOUND_ID = Map.ofEntries(
-{entries_joined});
-
     private ClimpSoundEvents() {{
     }}
 
     private static DeferredHolder<SoundEvent, SoundEvent> reg(String name) {{
         return SOUND_EVENTS.register(name, () -> SoundEvent.createVariableRangeEvent(ResourceLocation.fromNamespaceAndPath(ClimpMod.MODID, name)));
     }}
-
-    /** Returns the sound event for the given soundId (e.g. "climp_idle_1"). Uses climp_idle_1 as fallback if unknown. */
-    public static Holder<SoundEvent> get(String soundId) {{
-        Holder<SoundEvent> holder = BY_SOUND_ID.get(soundId);
-        return holder != null ? holder : CLIMP_IDLE_1;
-    }}
 }}
 """
 
@@ -1,5 +1,7 @@
 package com.asbjborg.climp;
 
+import com.asbjborg.climp.scan.TreeScanMode;
+
 import net.neoforged.neoforge.common.ModConfigSpec;
 
 public class ClimpConfig {
@@ -14,8 +16,8 @@ public class ClimpConfig {
             .defineInRange("preferredHotbarSlot", 0, 0, 8);
 
     public static final ModConfigSpec.IntValue COMMAND_TREE_SCAN_LIMIT = BUILDER
-            .comment("Maximum number of connected logs scanned for a command-rod tree task.")
-            .defineInRange("commandTreeScanLimit", 100, 1, 2048);
+            .comment("Maximum number of connected logs scanned for a command-rod tree task. Values above 2048 are best paired with commandTreeScanMode = BUDGETED.")
+            .defineInRange("commandTreeScanLimit", 100, 1, 8192);
 
     public static final ModConfigSpec.IntValue COMMAND_TREE_BREAK_LIMIT = BUILDER
             .comment("Maximum number of logs Climp will break from one scanned tree task.")
@@ -25,5 +27,65 @@ public class ClimpConfig {
             .comment("When true, shows command-rod debug messages with scanned/queued log counts.")
             .define("commandTreeScanDebugMessages", false);
 
+    public static final ModConfigSpec.BooleanValue COMMAND_TREE_SCAN_PALETTE_LOOKUP = BUILDER
+            .comment("When true, command-rod tree scans read chunk sections directly and skip sections without logs.")
+            .define("commandTreeScanPaletteLookup", true);
+
+    public static final ModConfigSpec.EnumValue<TreeScanMode> COMMAND_TREE_SCAN_MODE = BUILDER
+            .comment("Where command-rod tree scans run: SYNC on the server thread, ASYNC on a worker, or BUDGETED on the server thread spread over ticks. ASYNC and BUDGETED dispatch the task on a later tick.")
+            .defineEnum("commandTreeScanMode", TreeScanMode.SYNC);
+
+    public static final ModConfigSpec.IntValue COMMAND_TREE_SCAN_TICK_BUDGET_MICROS = BUILDER
+            .comment("Microseconds per server tick shared by all pending BUDGETED command-rod tree scans.")
+            .defineInRange("commandTreeScanTickBudgetMicros", 2000, 100, 50000);
+
+    public static final ModConfigSpec.BooleanValue COMMAND_TREE_ROUTE_PLANNING = BUILDER
+            .comment("When true, chomp-mode targets are grouped by standing spot and ordered to minimise walking instead of strictly by height.")
+            .define("commandTreeRoutePlanning", true);
+
+    public static final ModConfigSpec.BooleanValue COMMAND_TREE_SEGMENTATION = BUILDER
+            .comment("When true, command-rod tree scans split touching trees by trunk and keep only the clicked tree's trunk and the branches nearest to it.")
+            .define("commandTreeSegmentation", true);
+
+    public static final ModConfigSpec.BooleanValue COMMAND_COOPERATIVE_FELLING = BUILDER
+            .comment("When true, every available Climp you own within range joins a multi-log command-rod task and they split the tree between them.")
+            .define("commandCooperativeFelling", true);
+
+    public static final ModConfigSpec.IntValue COMMAND_JOB_QUEUE_SIZE = BUILDER
+            .comment("How many further trees a busy Climp can have queued. Queued trees are chopped back to back; Climp only returns when the queue is empty or its carry is full. 0 disables queueing.")
+            .defineInRange("commandJobQueueSize", 4, 0, 16);
+
+    public static final ModConfigSpec.BooleanValue COMMAND_TASK_CHUNK_TICKETS = BUILDER
+            .comment("When true, a Climp working a tree keeps the target's chunk loaded with a short-lived ticket, and asks for it to load when it is waiting on one. When false, a Climp waits (up to the usual task timeout) for something else to load them.")
+            .define("commandTaskChunkTickets", false);
+
+    public static final ModConfigSpec.IntValue CLIMP_IDLE_ACTIVITY_RADIUS = BUILDER
+            .comment("Climps without a task and with no player within this many blocks only run their AI every climpIdleTickInterval ticks.")
+            .defineInRange("climpIdleActivityRadius", 32, 8, 256);
+
+    public static final ModConfigSpec.IntValue CLIMP_IDLE_TICK_INTERVAL = BUILDER
+            .comment("How often (in ticks) an idle Climp with no player nearby runs its AI. 1 disables the slowdown.")
+            .defineInRange("climpIdleTickInterval", 4, 1, 40);
+
+    public static final ModConfigSpec.BooleanValue CLIMP_DORMANT_WHEN_OWNER_OFFLINE = BUILDER
+            .comment("When true, idle Climps whose owner is offline and with no player nearby stop ticking until the owner logs in or a player comes close.")
+            .define("climpDormantWhenOwnerOffline", true);
+
+    public static final ModConfigSpec.IntValue CLIMP_FOLLOW_TELEPORT_DISTANCE = BUILDER
+            .comment("A following Climp further than this many blocks from its owner (or stuck after a few failed paths) teleports to a safe spot next to them. 0 disables teleporting.")
+            .defineInRange("climpFollowTeleportDistance", 24, 0, 128);
+
+    public static final ModConfigSpec.BooleanValue CLIMP_FOLLOW_ACROSS_DIMENSIONS = BUILDER
+            .comment("When true, an idle Climp follows its owner into another dimension shortly after they change dimension.")
+            .define("climpFollowAcrossDimensions", true);
+
+    public static final ModConfigSpec.IntValue CLIMP_FEEDBACK_BUDGET_PER_SECOND = BUILDER
+            .comment("Climp speech lines each player receives per second on average (bursts up to twice that). Lines over budget are dropped, idle chatter first; task results are always delivered.")
+            .defineInRange("climpFeedbackBudgetPerSecond", 4, 1, 40);
+
+    public static final ModConfigSpec.IntValue CLIMP_CHATTER_LINES_PER_MINUTE = BUILDER
+            .comment("Idle lines a player hears per minute from all Climps around them combined (bursts up to two). Only one Climp speaks to a player at a time; task results and hit reactions are not limited by this.")
+            .defineInRange("climpChatterLinesPerMinute", 3, 1, 60);
+
     static final ModConfigSpec SPEC = BUILDER.build();
 }
@@ -5,6 +5,7 @@ import org.slf4j.Logger;
 import com.mojang.logging.LogUtils;
 import com.asbjborg.climp.entity.ClimpEntityTypes;
 import com.asbjborg.climp.item.ClimpItems;
+import com.asbjborg.climp.scan.LogBlockStates;
 import com.asbjborg.climp.sound.ClimpSoundEvents;
 
 import net.minecraft.world.item.CreativeModeTabs;
@@ -16,8 +17,10 @@ import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.event.entity.EntityAttributeCreationEvent;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
 import com.asbjborg.climp.event.ClimpCommandEvents;
 import com.asbjborg.climp.event.ClimpPlayerEvents;
+import com.asbjborg.climp.event.ClimpTaskEvents;
 
 // The value here should match an entry in the META-INF/neoforge.mods.toml file
 @Mod(ClimpMod.MODID)
@@ -36,6 +39,22 @@ public class ClimpMod {
         NeoForge.EVENT_BUS.addListener(ClimpPlayerEvents::onPlayerLoggedIn);
         NeoForge.EVENT_BUS.addListener(ClimpCommandEvents::onRegisterCommands);
         NeoForge.EVENT_BUS.addListener(ClimpCommandEvents::onServerStarted);
+        NeoForge.EVENT_BUS.addListener(this::onTagsUpdated);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onServerTick);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onLevelTickPre);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onLevelTick);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onPlayerLoggedIn);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onPlayerLoggedOut);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onPlayerRespawn);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onPlayerChangedDimension);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onServerStopping);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onBlockBreak);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onBlockPlace);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onNeighborNotify);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onExplosionDetonate);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onEntityJoinLevel);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onEntityLeaveLevel);
+        NeoForge.EVENT_BUS.addListener(ClimpTaskEvents::onEntityEnteringSection);
 
         // Register entity types.
         ClimpEntityTypes.ENTITY_TYPES.register(modEventBus);
@@ -54,6 +73,10 @@ public class ClimpMod {
         event.put(ClimpEntityTypes.CLIMP.get(), ClimpEntityTypes.createAttributes().build());
     }
 
+    private void onTagsUpdated(TagsUpdatedEvent event) {
+        LogBlockStates.invalidate();
+    }
+
     private void addCreativeTabEntries(BuildCreativeModeTabContentsEvent event) {
         if (event.getTabKey() == CreativeModeTabs.SPAWN_EGGS) {
             event.accept(ClimpItems.CLIMP_SPAWN_EGG);
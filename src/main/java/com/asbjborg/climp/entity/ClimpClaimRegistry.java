@@ -0,0 +1,148 @@
+package com.asbjborg.climp.entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+/**
+ * Per-level claims on log positions (packed {@link BlockPos} longs), so two Climp tasks never work the
+ * same log, whoever owns them. Each claim records the owning player, the task id and an expiry; an
+ * expired claim counts as free, so a claim that is never released cannot block a log forever. Each
+ * task's positions are also indexed, so releasing a task only touches its own claims. Claims are not
+ * saved: a Climp re-claims its task when it is loaded. Server thread only.
+ */
+public final class ClimpClaimRegistry {
+    private static final Map<ResourceKey<Level>, ClimpClaimRegistry> BY_LEVEL = new HashMap<>();
+    private static final int CLAIM_LIFETIME_TICKS = 20 * 60 * 5;
+    // How often a working Climp renews what it holds; well inside the lifetime, so nothing lapses.
+    static final int CLAIM_RENEW_INTERVAL_TICKS = CLAIM_LIFETIME_TICKS / 5;
+
+    private static long nextTaskId = 1L;
+
+    private final Long2ObjectOpenHashMap<Claim> claims = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> positionsByTask = new Long2ObjectOpenHashMap<>();
+
+    public record Claim(UUID ownerId, long taskId, long expiresAtGameTime) {
+        boolean isLive(long gameTime) {
+            return this.expiresAtGameTime > gameTime;
+        }
+    }
+
+    ClimpClaimRegistry() {
+    }
+
+    public static ClimpClaimRegistry forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpClaimRegistry());
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    public static long newTaskId() {
+        return nextTaskId++;
+    }
+
+    public static String describeStats() {
+        int claims = 0;
+        for (ClimpClaimRegistry registry : BY_LEVEL.values()) {
+            claims += registry.claims.size();
+        }
+        return "Climp claims: positions=" + claims;
+    }
+
+    /**
+     * Claims every target not held by another task's live claim, renewing ones the task already holds.
+     *
+     * @return the targets now held by the task, in the given order
+     */
+    public List<BlockPos> claimAll(List<BlockPos> targets, UUID ownerId, long taskId, long gameTime) {
+        Claim fresh = new Claim(ownerId, taskId, gameTime + CLAIM_LIFETIME_TICKS);
+        List<BlockPos> claimed = new ArrayList<>(targets.size());
+        for (BlockPos target : targets) {
+            if (this.claim(target.asLong(), fresh, gameTime)) {
+                claimed.add(target.immutable());
+            }
+        }
+        return claimed;
+    }
+
+    /**
+     * The live claim on the position, if any.
+     */
+    @Nullable
+    public Claim holderOf(BlockPos pos, long gameTime) {
+        Claim claim = this.claims.get(pos.asLong());
+        return claim != null && claim.isLive(gameTime) ? claim : null;
+    }
+
+    /**
+     * Claims (or renews the task's claim on) one position; called as Climp moves on to it, so a claim
+     * that lapsed during a long task is taken back if nobody else took it meanwhile.
+     *
+     * @return whether the task holds the position now
+     */
+    boolean claim(BlockPos pos, UUID ownerId, long taskId, long gameTime) {
+        return this.claim(pos.asLong(), new Claim(ownerId, taskId, gameTime + CLAIM_LIFETIME_TICKS), gameTime);
+    }
+
+    private boolean claim(long packedPos, Claim fresh, long gameTime) {
+        Claim existing = this.claims.get(packedPos);
+        if (existing != null && existing.taskId() != fresh.taskId()) {
+            if (existing.isLive(gameTime)) {
+                return false;
+            }
+            this.unindex(existing.taskId(), packedPos);
+        }
+        this.claims.put(packedPos, fresh);
+        LongOpenHashSet positions = this.positionsByTask.get(fresh.taskId());
+        if (positions == null) {
+            positions = new LongOpenHashSet();
+            this.positionsByTask.put(fresh.taskId(), positions);
+        }
+        positions.add(packedPos);
+        return true;
+    }
+
+    void release(BlockPos pos, long taskId) {
+        long packedPos = pos.asLong();
+        Claim claim = this.claims.get(packedPos);
+        if (claim != null && claim.taskId() == taskId) {
+            this.claims.remove(packedPos);
+            this.unindex(taskId, packedPos);
+        }
+    }
+
+    /**
+     * Drops every claim of the task, through the task's position index.
+     */
+    void releaseTask(long taskId) {
+        LongOpenHashSet positions = this.positionsByTask.remove(taskId);
+        if (positions == null) {
+            return;
+        }
+        LongIterator iterator = positions.iterator();
+        while (iterator.hasNext()) {
+            this.claims.remove(iterator.nextLong());
+        }
+    }
+
+    private void unindex(long taskId, long packedPos) {
+        LongOpenHashSet positions = this.positionsByTask.get(taskId);
+        if (positions != null && positions.remove(packedPos) && positions.isEmpty()) {
+            this.positionsByTask.remove(taskId);
+        }
+    }
+}
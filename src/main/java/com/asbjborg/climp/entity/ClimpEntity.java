@@ -2,6 +2,7 @@ package com.asbjborg.climp.entity;
 
 import java.util.EnumSet;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
@@ -9,15 +10,24 @@ import java.util.Set;
 import java.util.UUID;
 import javax.annotation.Nullable;
 
+import com.asbjborg.climp.ClimpConfig;
+import com.asbjborg.climp.network.ClimpFeedbackOutput;
 import com.asbjborg.climp.speech.ClimpSpeechManager;
 
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.tags.BlockTags;
-import net.minecraft.world.Containers;
+import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.damagesource.DamageSource;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.PathfinderMob;
@@ -28,14 +38,46 @@ import net.minecraft.world.entity.ai.goal.RandomLookAroundGoal;
 import net.minecraft.world.entity.ai.goal.WaterAvoidingRandomStrollGoal;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.LeavesBlock;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.pathfinder.Path;
+import net.minecraft.world.level.pathfinder.PathType;
+import net.minecraft.world.level.pathfinder.WalkNodeEvaluator;
+import net.minecraft.world.level.portal.DimensionTransition;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.items.IItemHandler;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
 
 /**
  * Climp entity with MVP follow behavior.
  */
 public class ClimpEntity extends PathfinderMob {
     private static final String OWNER_UUID_TAG = "OwnerUUID";
+    private static final String DEPOSIT_POS_TAG = "DepositPos";
+    private static final String DEPOSIT_DIMENSION_TAG = "DepositDimension";
+    private static final String CARRIED_DROPS_TAG = "CarriedDrops";
+    private static final String COMMAND_COOLDOWN_TAG = "CommandCooldown";
+    private static final String COMMAND_TASK_TAG = "CommandTask";
+    private static final String TASK_STAGE_TAG = "Stage";
+    private static final String TASK_TARGET_TAG = "Target";
+    private static final String TASK_QUEUE_TAG = "Queue";
+    private static final String TASK_REQUESTER_TAG = "Requester";
+    private static final String TASK_SUCCEEDED_TAG = "Succeeded";
+    private static final String TASK_RECALL_TAG = "Recall";
+    private static final String TASK_QUIET_TAG = "Quiet";
+    private static final String TASK_CHOMP_MODE_TAG = "ChompMode";
+    private static final String TASK_ANCHOR_Y_TAG = "AnchorY";
+    private static final String TASK_REACH_BONUS_TAG = "ReachBonus";
+    private static final String TASK_FAILURE_REASON_TAG = "FailureReason";
+    private static final String TASK_LOGS_BROKEN_TAG = "LogsBroken";
+    private static final String TASK_TARGETS_REMOVED_TAG = "TargetsRemoved";
+    private static final String PENDING_JOBS_TAG = "PendingJobs";
+    private static final String JOB_TARGETS_TAG = "Targets";
     private static final double COMMAND_TASK_RANGE_SQR = 16.0D * 16.0D;
     private static final double COMMAND_TASK_REACH_BLOCKS = 3.0D;
     private static final double COMMAND_RETURN_REACH_SQR = 3.0D * 3.0D;
@@ -44,27 +86,75 @@ public class ClimpEntity extends PathfinderMob {
     private static final int COMMAND_TASK_COOLDOWN_TICKS = 20 * 3;
     private static final int COMMAND_STAGE_TIMEOUT_TICKS = 20 * 20;
     private static final int COMMAND_NO_PATH_FAIL_TICKS = 20 * 2;
+    private static final int COMMAND_CARRY_SLOTS = 27;
+    private static final int ACTIVITY_RECHECK_TICKS = 20;
+    private static final int FOLLOW_FAILED_PATHS_BEFORE_TELEPORT = 3;
+    private static final int FOLLOW_TELEPORT_ATTEMPTS = 10;
+    private static final long CROSS_DIMENSION_FOLLOW_DELAY_TICKS = 40L;
+    private static final float FOLLOW_MAX_DISTANCE = 28.0F;
 
     private final ClimpSpeechManager speechManager = new ClimpSpeechManager();
     @Nullable
     private UUID ownerId;
+    // Resolved owner, so goals do not hit the player list every tick. Kept current by player events.
+    @Nullable
+    private ServerPlayer cachedOwner;
+    private boolean ownerKnownAbsent;
     @Nullable
     private BlockPos commandTargetPos;
     private final Deque<BlockPos> commandQueuedTargets = new ArrayDeque<>();
-    private final Deque<ItemStack> commandCarriedDrops = new ArrayDeque<>();
+    // Further trees ordered while busy, started back to back once the current one runs out.
+    private final Deque<PendingJob> commandPendingJobs = new ArrayDeque<>();
+    private final SimpleContainer commandCarriedDrops = new SimpleContainer(COMMAND_CARRY_SLOTS);
+    @Nullable
+    private BlockPos depositPos;
+    @Nullable
+    private ResourceKey<Level> depositDimension;
+    @Nullable
+    private SharedFellingTask commandSharedTask;
+    // Id the task's logs are claimed under in the ClimpClaimRegistry. A shared tree's claims belong to
+    // the SharedFellingTask and are released by it, not by this Climp.
+    private long commandTaskId;
+    private boolean commandOwnsClaims;
+    private boolean commandTaskQuiet;
     @Nullable
     private UUID commandRequesterId;
     private CommandTaskStage commandTaskStage = CommandTaskStage.NONE;
     private int commandBreakTicksRemaining;
-    private int commandStageTicks;
-    private int commandNoPathTicks;
-    private int commandCooldownTicks;
+    @Nullable
+    private ClimpTimerWheel.Timer commandStageTimer;
+    @Nullable
+    private ClimpTimerWheel.Timer commandNoPathTimer;
+    @Nullable
+    private ClimpTimerWheel.Timer commandCooldownTimer;
+    @Nullable
+    private ClimpTimerWheel.Timer claimRenewTimer;
+    // Cooldown read from NBT, started once Climp is in a level and has a timer wheel.
+    private int commandCooldownTicksToArm;
+    private int commandUnloadedWaitTicks;
+    private int commandSentBreakStage = -1;
+    // Owner distance from this tick's ClimpLevelSystem pass; stale once the server tick moves on.
+    private int snapshotTick = -1;
+    private double snapshotOwnerDistanceSqr;
+    // Last known state of the current target, kept current by ClimpTargetIndex pushes and the level sweep.
+    private long targetStateKey = Long.MIN_VALUE;
+    private TaskBlockAccess.LogState targetState = TaskBlockAccess.LogState.GONE;
+    // Watched targets that were pushed as removed; skipped (and dropped) when they come up in the queue.
+    private final LongOpenHashSet commandRemovedTargets = new LongOpenHashSet();
+    private final ClimpTargetIndex.TargetWatcher targetWatcher = this::onWatchedTargetRemoved;
+    private int commandLogsBroken;
+    private int commandTargetsRemoved;
     private boolean commandTaskSucceeded;
     private boolean commandRecallRequested;
     private boolean commandScanChompMode;
     private int commandClusterAnchorY;
     private double commandScanInitialReachBonusBlocks;
     private ClimpSpeechManager.TaskFailureReason commandTaskFailureReason = ClimpSpeechManager.TaskFailureReason.UNREACHABLE;
+    private ActivityTier activityTier = ActivityTier.ACTIVE;
+    // Game time the owner left this level while Climp was following them; -1 when not catching up.
+    private long ownerInOtherLevelSinceTick = -1L;
+    private boolean followingOwner;
+    private int activityRecheckTicks;
 
     protected ClimpEntity(EntityType<? extends PathfinderMob> entityType, Level level) {
         super(entityType, level);
@@ -74,18 +164,32 @@ public class ClimpEntity extends PathfinderMob {
     protected void registerGoals() {
         this.goalSelector.addGoal(0, new FloatGoal(this));
         this.goalSelector.addGoal(1, new CommandTargetGoal(this, 1.18D));
-        this.goalSelector.addGoal(2, new FollowOwnerGoal(this, 1.12D, 3.0F, 28.0F));
+        this.goalSelector.addGoal(2, new FollowOwnerGoal(this, 1.12D, 3.0F, FOLLOW_MAX_DISTANCE));
         this.goalSelector.addGoal(3, new LookAtPlayerGoal(this, Player.class, 8.0F));
         this.goalSelector.addGoal(4, new WaterAvoidingRandomStrollGoal(this, 0.9D));
         this.goalSelector.addGoal(5, new RandomLookAroundGoal(this));
     }
 
+    @Override
+    public void tick() {
+        if (!this.level().isClientSide) {
+            if (this.shouldSkipServerTick()) {
+                return;
+            }
+            ClimpFeedbackOutput.countClimpTick();
+        }
+        super.tick();
+    }
+
     @Override
     public void aiStep() {
         super.aiStep();
-        this.speechManager.tick(this);
-        if (this.commandCooldownTicks > 0) {
-            this.commandCooldownTicks--;
+        if (!this.level().isClientSide) {
+            if (!this.hasCommandTask() && !this.commandPendingJobs.isEmpty()) {
+                // Queued work skips the post-task cooldown.
+                this.startNextPendingJob();
+            }
+            this.tickCrossDimensionFollow();
         }
     }
 
@@ -95,12 +199,148 @@ public class ClimpEntity extends PathfinderMob {
         if (this.ownerId != null) {
             tag.putUUID(OWNER_UUID_TAG, this.ownerId);
         }
+        if (this.depositPos != null && this.depositDimension != null) {
+            tag.putLong(DEPOSIT_POS_TAG, this.depositPos.asLong());
+            tag.putString(DEPOSIT_DIMENSION_TAG, this.depositDimension.location().toString());
+        }
+        if (!this.commandCarriedDrops.isEmpty()) {
+            tag.put(CARRIED_DROPS_TAG, this.commandCarriedDrops.createTag(this.registryAccess()));
+        }
+        int cooldownTicks = this.remainingCooldownTicks();
+        if (cooldownTicks > 0) {
+            tag.putInt(COMMAND_COOLDOWN_TAG, cooldownTicks);
+        }
+        if (this.hasCommandTask()) {
+            tag.put(COMMAND_TASK_TAG, this.saveCommandTask());
+        }
+        if (!this.commandPendingJobs.isEmpty()) {
+            ListTag jobsTag = new ListTag();
+            for (PendingJob job : this.commandPendingJobs) {
+                CompoundTag jobTag = new CompoundTag();
+                jobTag.putUUID(TASK_REQUESTER_TAG, job.requesterId());
+                jobTag.putLongArray(JOB_TARGETS_TAG, job.targets());
+                jobsTag.add(jobTag);
+            }
+            tag.put(PENDING_JOBS_TAG, jobsTag);
+        }
+    }
+
+    /**
+     * The running task in compact form. A shared tree is saved as this Climp's own claim and batch, plus
+     * the logs nobody has taken yet if this Climp leads it (see {@link SharedFellingTask#savedTargetsOf}),
+     * and resumes solo.
+     */
+    private CompoundTag saveCommandTask() {
+        CompoundTag taskTag = new CompoundTag();
+        taskTag.putString(TASK_STAGE_TAG, this.commandTaskStage.name());
+        if (this.commandTargetPos != null) {
+            taskTag.putLong(TASK_TARGET_TAG, this.commandTargetPos.asLong());
+        }
+
+        List<BlockPos> remaining = new ArrayList<>(this.commandQueuedTargets);
+        if (this.commandSharedTask != null) {
+            remaining.addAll(0, this.commandSharedTask.savedTargetsOf(this));
+        }
+        long[] packedQueue = new long[remaining.size()];
+        for (int i = 0; i < packedQueue.length; i++) {
+            packedQueue[i] = remaining.get(i).asLong();
+        }
+        taskTag.putLongArray(TASK_QUEUE_TAG, packedQueue);
+
+        if (this.commandRequesterId != null) {
+            taskTag.putUUID(TASK_REQUESTER_TAG, this.commandRequesterId);
+        }
+        taskTag.putBoolean(TASK_SUCCEEDED_TAG, this.commandTaskSucceeded);
+        taskTag.putBoolean(TASK_RECALL_TAG, this.commandRecallRequested);
+        taskTag.putBoolean(TASK_QUIET_TAG, this.commandTaskQuiet);
+        taskTag.putBoolean(TASK_CHOMP_MODE_TAG, this.commandScanChompMode);
+        taskTag.putInt(TASK_ANCHOR_Y_TAG, this.commandClusterAnchorY);
+        taskTag.putDouble(TASK_REACH_BONUS_TAG, this.commandScanInitialReachBonusBlocks);
+        taskTag.putString(TASK_FAILURE_REASON_TAG, this.commandTaskFailureReason.name());
+        taskTag.putInt(TASK_LOGS_BROKEN_TAG, this.commandLogsBroken);
+        taskTag.putInt(TASK_TARGETS_REMOVED_TAG, this.commandTargetsRemoved);
+        return taskTag;
     }
 
     @Override
     public void readAdditionalSaveData(CompoundTag tag) {
         super.readAdditionalSaveData(tag);
         this.ownerId = tag.hasUUID(OWNER_UUID_TAG) ? tag.getUUID(OWNER_UUID_TAG) : null;
+        this.invalidateOwnerHandle(false);
+        this.depositPos = null;
+        this.depositDimension = null;
+        if (tag.contains(DEPOSIT_POS_TAG, Tag.TAG_LONG) && tag.contains(DEPOSIT_DIMENSION_TAG, Tag.TAG_STRING)) {
+            ResourceLocation dimension = ResourceLocation.tryParse(tag.getString(DEPOSIT_DIMENSION_TAG));
+            if (dimension != null) {
+                this.depositPos = BlockPos.of(tag.getLong(DEPOSIT_POS_TAG));
+                this.depositDimension = ResourceKey.create(Registries.DIMENSION, dimension);
+            }
+        }
+
+        this.commandCarriedDrops.clearContent();
+        if (tag.contains(CARRIED_DROPS_TAG, Tag.TAG_LIST)) {
+            this.commandCarriedDrops.fromTag(tag.getList(CARRIED_DROPS_TAG, Tag.TAG_COMPOUND), this.registryAccess());
+        }
+        this.commandCooldownTicksToArm = tag.getInt(COMMAND_COOLDOWN_TAG);
+        if (tag.contains(COMMAND_TASK_TAG, Tag.TAG_COMPOUND)) {
+            this.loadCommandTask(tag.getCompound(COMMAND_TASK_TAG));
+        }
+        this.commandPendingJobs.clear();
+        ListTag jobsTag = tag.getList(PENDING_JOBS_TAG, Tag.TAG_COMPOUND);
+        for (int i = 0; i < jobsTag.size(); i++) {
+            CompoundTag jobTag = jobsTag.getCompound(i);
+            long[] targets = jobTag.getLongArray(JOB_TARGETS_TAG);
+            if (jobTag.hasUUID(TASK_REQUESTER_TAG) && targets.length > 0) {
+                // Claims are not saved; the job is claimed again under this id when Climp joins a level.
+                this.commandPendingJobs.addLast(new PendingJob(jobTag.getUUID(TASK_REQUESTER_TAG), ClimpClaimRegistry.newTaskId(), targets));
+            }
+        }
+    }
+
+    /**
+     * Restores a saved task. Targets are re-checked and re-claimed once when Climp joins the level (see
+     * {@link #reclaimTaskTargets} and {@link #watchTaskTargets}), not here.
+     */
+    private void loadCommandTask(CompoundTag taskTag) {
+        CommandTaskStage stage;
+        try {
+            stage = CommandTaskStage.valueOf(taskTag.getString(TASK_STAGE_TAG));
+        } catch (IllegalArgumentException exception) {
+            return;
+        }
+
+        this.commandQueuedTargets.clear();
+        for (long packedTarget : taskTag.getLongArray(TASK_QUEUE_TAG)) {
+            this.commandQueuedTargets.addLast(BlockPos.of(packedTarget));
+        }
+        this.commandTargetPos = taskTag.contains(TASK_TARGET_TAG, Tag.TAG_LONG) ? BlockPos.of(taskTag.getLong(TASK_TARGET_TAG)) : null;
+        this.commandRequesterId = taskTag.hasUUID(TASK_REQUESTER_TAG) ? taskTag.getUUID(TASK_REQUESTER_TAG) : null;
+        this.commandTaskSucceeded = taskTag.getBoolean(TASK_SUCCEEDED_TAG);
+        this.commandRecallRequested = taskTag.getBoolean(TASK_RECALL_TAG);
+        this.commandTaskQuiet = taskTag.getBoolean(TASK_QUIET_TAG);
+        this.commandScanChompMode = taskTag.getBoolean(TASK_CHOMP_MODE_TAG);
+        this.commandClusterAnchorY = taskTag.getInt(TASK_ANCHOR_Y_TAG);
+        this.commandScanInitialReachBonusBlocks = taskTag.getDouble(TASK_REACH_BONUS_TAG);
+        this.commandLogsBroken = taskTag.getInt(TASK_LOGS_BROKEN_TAG);
+        this.commandTargetsRemoved = taskTag.getInt(TASK_TARGETS_REMOVED_TAG);
+        this.commandTaskId = ClimpClaimRegistry.newTaskId();
+        this.commandOwnsClaims = true;
+        try {
+            this.commandTaskFailureReason = ClimpSpeechManager.TaskFailureReason.valueOf(taskTag.getString(TASK_FAILURE_REASON_TAG));
+        } catch (IllegalArgumentException exception) {
+            this.commandTaskFailureReason = ClimpSpeechManager.TaskFailureReason.UNREACHABLE;
+        }
+
+        // Break progress is not saved; walk up to the target and start the break over.
+        this.setCommandTaskStage(stage == CommandTaskStage.BREAKING ? CommandTaskStage.TO_TARGET : stage);
+        this.commandBreakTicksRemaining = 0;
+    }
+
+    @Override
+    public void remove(RemovalReason reason) {
+        // Hand unfinished shared work back so the rest of the squad picks it up.
+        this.leaveSharedTask(this.commandTargetPos);
+        super.remove(reason);
     }
 
     @Override
@@ -111,11 +351,190 @@ public class ClimpEntity extends PathfinderMob {
 
     @Override
     public boolean hurt(DamageSource source, float amount) {
+        this.wakeUp();
         boolean didHurt = super.hurt(source, amount);
         this.speechManager.onHit(this, source, didHurt);
         return didHurt;
     }
 
+    /**
+     * Back to full tick rate; the tier is re-evaluated on the next recheck. Called on damage, on the
+     * owner's login and by the {@link ClimpLevelSystem} pass when a player comes within range of a
+     * dormant Climp.
+     */
+    public void wakeUp() {
+        if (this.isDormant()) {
+            this.speechManager.arm(this);
+        }
+        this.activityTier = ActivityTier.ACTIVE;
+        this.activityRecheckTicks = ACTIVITY_RECHECK_TICKS;
+    }
+
+    public boolean isDormant() {
+        return this.activityTier == ActivityTier.DORMANT;
+    }
+
+    boolean isWaitingForListener() {
+        return this.speechManager.isWaitingForListener();
+    }
+
+    void onListenerNearby() {
+        this.speechManager.onListenerNearby(this);
+    }
+
+    /**
+     * Task Climps always tick. A dormant Climp skips every tick with no countdown or player query until
+     * something wakes it (see {@link #wakeUp}). Otherwise the tier is re-evaluated every
+     * {@link #ACTIVITY_RECHECK_TICKS}. Ticks are only skipped while Climp is settled, so physics never
+     * freezes mid-fall or mid-swim.
+     */
+    private boolean shouldSkipServerTick() {
+        if (this.hasCommandTask() || !this.commandPendingJobs.isEmpty()) {
+            this.activityTier = ActivityTier.ACTIVE;
+            return false;
+        }
+        if (this.isDormant()) {
+            if (this.isSettled()) {
+                return true;
+            }
+            this.wakeUp();
+        }
+        if (--this.activityRecheckTicks <= 0) {
+            this.activityRecheckTicks = ACTIVITY_RECHECK_TICKS;
+            this.activityTier = this.computeActivityTier();
+            if (this.isDormant()) {
+                this.speechManager.disarm();
+            }
+        }
+        if (this.activityTier == ActivityTier.ACTIVE || !this.isSettled()) {
+            return false;
+        }
+        if (this.activityTier == ActivityTier.DORMANT) {
+            return true;
+        }
+        return this.tickCount % ClimpConfig.CLIMP_IDLE_TICK_INTERVAL.getAsInt() != 0;
+    }
+
+    private ActivityTier computeActivityTier() {
+        double radius = ClimpConfig.CLIMP_IDLE_ACTIVITY_RADIUS.getAsInt();
+        if (this.level() instanceof ServerLevel serverLevel
+                && ClimpLevelSystem.forLevel(serverLevel).hasPlayerWithin(serverLevel, this.getX(), this.getY(), this.getZ(), radius)) {
+            return ActivityTier.ACTIVE;
+        }
+        if (this.ownerId != null
+                && ClimpConfig.CLIMP_DORMANT_WHEN_OWNER_OFFLINE.getAsBoolean()
+                && this.getOwnerPlayer() == null) {
+            return ActivityTier.DORMANT;
+        }
+        return ActivityTier.IDLE;
+    }
+
+    /**
+     * The owner just left this Climp's level. Climp only follows them across if it was following them
+     * here: its follow goal was running, or the owner was within follow or teleport range at the last
+     * level pass. Climps parked elsewhere in the level stay put.
+     */
+    public void onOwnerLeftLevel() {
+        if (!(this.level() instanceof ServerLevel serverLevel) || this.hasCommandTask()) {
+            this.ownerInOtherLevelSinceTick = -1L;
+            return;
+        }
+        double followRange = Math.max(FOLLOW_MAX_DISTANCE, ClimpConfig.CLIMP_FOLLOW_TELEPORT_DISTANCE.getAsInt());
+        boolean ownerWasInRange = serverLevel.getServer().getTickCount() - this.snapshotTick <= 1
+                && this.snapshotOwnerDistanceSqr <= followRange * followRange;
+        this.ownerInOtherLevelSinceTick = this.followingOwner || ownerWasInRange ? serverLevel.getGameTime() : -1L;
+    }
+
+    /**
+     * Follows the owner into another level once they have been there for
+     * {@link #CROSS_DIMENSION_FOLLOW_DELAY_TICKS}, so a quick portal bounce does not drag Climp along.
+     * Only runs once {@link #onOwnerLeftLevel} armed it.
+     */
+    private void tickCrossDimensionFollow() {
+        if (this.ownerInOtherLevelSinceTick < 0L) {
+            return;
+        }
+        ServerPlayer owner = this.getOwnerPlayer();
+        if (owner == null || owner.level() == this.level() || this.hasCommandTask() || this.isPassenger()
+                || owner.isSpectator() || !ClimpConfig.CLIMP_FOLLOW_ACROSS_DIMENSIONS.getAsBoolean()) {
+            this.ownerInOtherLevelSinceTick = -1L;
+            return;
+        }
+        if (this.level().getGameTime() - this.ownerInOtherLevelSinceTick < CROSS_DIMENSION_FOLLOW_DELAY_TICKS) {
+            return;
+        }
+
+        this.ownerInOtherLevelSinceTick = -1L;
+        ServerLevel ownerLevel = owner.serverLevel();
+        BlockPos arrival = this.findTeleportSpotNear(ownerLevel, owner.blockPosition());
+        Vec3 arrivalPos = arrival != null ? Vec3.atBottomCenterOf(arrival) : owner.position();
+        this.changeDimension(new DimensionTransition(
+                ownerLevel, arrivalPos, Vec3.ZERO, this.getYRot(), this.getXRot(), DimensionTransition.DO_NOTHING));
+    }
+
+    /**
+     * Teleports next to the owner like a tamed wolf does. Returns false if no safe spot was found.
+     */
+    private boolean tryTeleportToOwner(Player owner) {
+        if (!(this.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+        BlockPos spot = this.findTeleportSpotNear(serverLevel, owner.blockPosition());
+        if (spot == null) {
+            return false;
+        }
+        this.moveTo(spot.getX() + 0.5D, spot.getY(), spot.getZ() + 0.5D, this.getYRot(), this.getXRot());
+        this.getNavigation().stop();
+        return true;
+    }
+
+    @Nullable
+    private BlockPos findTeleportSpotNear(ServerLevel targetLevel, BlockPos ownerPos) {
+        BlockPos.MutableBlockPos candidate = new BlockPos.MutableBlockPos();
+        for (int attempt = 0; attempt < FOLLOW_TELEPORT_ATTEMPTS; attempt++) {
+            int dx = this.random.nextIntBetweenInclusive(-3, 3);
+            int dy = this.random.nextIntBetweenInclusive(-1, 1);
+            int dz = this.random.nextIntBetweenInclusive(-3, 3);
+            // Not right on top of the owner.
+            if (Math.abs(dx) < 2 && Math.abs(dz) < 2) {
+                continue;
+            }
+            candidate.set(ownerPos.getX() + dx, ownerPos.getY() + dy, ownerPos.getZ() + dz);
+            if (this.canTeleportTo(targetLevel, candidate)) {
+                return candidate.immutable();
+            }
+        }
+        return null;
+    }
+
+    private boolean canTeleportTo(ServerLevel targetLevel, BlockPos pos) {
+        if (!targetLevel.isLoaded(pos)) {
+            return false;
+        }
+        if (targetLevel == this.level() && WalkNodeEvaluator.getPathTypeStatic(this, pos) != PathType.WALKABLE) {
+            return false;
+        }
+        if (targetLevel.getBlockState(pos.below()).getBlock() instanceof LeavesBlock
+                || !targetLevel.getBlockState(pos.below()).isSolid()) {
+            return false;
+        }
+        AABB box = this.getBoundingBox().move(
+                pos.getX() + 0.5D - this.getX(), pos.getY() - this.getY(), pos.getZ() + 0.5D - this.getZ());
+        return targetLevel.noCollision(box) && !targetLevel.containsAnyLiquid(box);
+    }
+
+    private boolean isSettled() {
+        return this.onGround()
+                && !this.isInWater()
+                && !this.isInLava()
+                && !this.isOnFire()
+                && this.hurtTime == 0
+                && !this.isPassenger()
+                && this.getActiveEffects().isEmpty()
+                && this.getNavigation().isDone()
+                && this.getDeltaMovement().horizontalDistanceSqr() < 1.0E-6D;
+    }
+
     public boolean assignLogTask(ServerPlayer requester, BlockPos targetPos) {
         return this.assignLogTask(requester, List.of(targetPos));
     }
@@ -125,24 +544,158 @@ public class ClimpEntity extends PathfinderMob {
             return false;
         }
 
-        if (targetPositions.isEmpty()) {
+        if (targetPositions.isEmpty() || !(this.level() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+
+        // Logs another task holds are skipped; the rest are this task's until it ends.
+        ClimpClaimRegistry claims = ClimpClaimRegistry.forLevel(serverLevel);
+        long taskId = ClimpClaimRegistry.newTaskId();
+        List<BlockPos> claimedTargets = claims.claimAll(targetPositions, requester.getUUID(), taskId, serverLevel.getGameTime());
+        if (claimedTargets.isEmpty()) {
             return false;
         }
 
-        BlockPos targetPos = targetPositions.get(0).immutable();
+        BlockPos targetPos = claimedTargets.get(0);
         if (this.distanceToSqr(targetPos.getCenter()) > COMMAND_TASK_RANGE_SQR) {
+            claims.releaseTask(taskId);
             return false;
         }
 
-        this.commandTargetPos = targetPos.immutable();
         this.commandQueuedTargets.clear();
-        this.commandCarriedDrops.clear();
-        for (int i = 1; i < targetPositions.size(); i++) {
-            this.commandQueuedTargets.addLast(targetPositions.get(i).immutable());
+        this.commandQueuedTargets.addAll(claimedTargets.subList(1, claimedTargets.size()));
+        this.startLogTask(requester.getUUID(), taskId, targetPos, targetPositions.size() > 1, targetPos.getY(), requester);
+        return true;
+    }
+
+    /**
+     * Whether a tree can be queued behind the current (or just finished) task.
+     */
+    public boolean canQueueCommandJob() {
+        return (this.hasCommandTask() || this.isOnCommandCooldown())
+                && this.commandPendingJobs.size() < ClimpConfig.COMMAND_JOB_QUEUE_SIZE.getAsInt();
+    }
+
+    public int pendingJobCount() {
+        return this.commandPendingJobs.size();
+    }
+
+    public boolean enqueueLogJob(ServerPlayer requester, List<BlockPos> targetPositions) {
+        if (!(this.level() instanceof ServerLevel serverLevel) || !this.isOwnedBy(requester)
+                || targetPositions.isEmpty() || !this.canQueueCommandJob()) {
+            return false;
         }
-        this.commandRequesterId = requester.getUUID();
-        this.commandScanChompMode = targetPositions.size() > 1;
-        this.commandClusterAnchorY = targetPos.getY();
+
+        // Queued trees are claimed right away, so nobody else starts on a tree this Climp has promised.
+        long taskId = ClimpClaimRegistry.newTaskId();
+        List<BlockPos> claimedTargets = ClimpClaimRegistry.forLevel(serverLevel)
+                .claimAll(targetPositions, requester.getUUID(), taskId, serverLevel.getGameTime());
+        if (claimedTargets.isEmpty()) {
+            return false;
+        }
+        this.commandPendingJobs.addLast(new PendingJob(requester.getUUID(), taskId, packTargets(claimedTargets)));
+        this.scheduleClaimRenewal();
+        return true;
+    }
+
+    /**
+     * Starts the oldest queued tree whose logs can still be claimed. Each job's targets are claimed
+     * again first; logs another task took meanwhile are dropped, and a job with none left is skipped.
+     * A tree further from Climp than a fresh task may be ({@link #COMMAND_TASK_RANGE_SQR}) is dropped
+     * and its claims released, with a note to the requester. Carried drops are kept, so several trees
+     * can be brought back in one trip. Chained trees start quietly; the result is reported once Climp
+     * returns.
+     */
+    private boolean startNextPendingJob() {
+        PendingJob job;
+        while ((job = this.commandPendingJobs.pollFirst()) != null) {
+            List<BlockPos> targets = this.reclaimJob(job);
+            if (targets.isEmpty()) {
+                continue;
+            }
+            if (this.distanceToSqr(targets.get(0).getCenter()) > COMMAND_TASK_RANGE_SQR) {
+                this.dropOutOfRangeJob(job);
+                continue;
+            }
+
+            this.commandQueuedTargets.clear();
+            this.commandQueuedTargets.addAll(targets.subList(1, targets.size()));
+            BlockPos targetPos = targets.get(0);
+            this.startLogTask(job.requesterId(), job.taskId(), targetPos, targets.size() > 1, targetPos.getY(), null);
+            return true;
+        }
+        return false;
+    }
+
+    private void dropOutOfRangeJob(PendingJob job) {
+        if (this.level() instanceof ServerLevel serverLevel) {
+            ClimpClaimRegistry.forLevel(serverLevel).releaseTask(job.taskId());
+        }
+        ServerPlayer requester = this.lookupPlayer(job.requesterId());
+        if (requester != null) {
+            requester.sendSystemMessage(Component.literal("Climp: A queued tree was too far away by the time I got to it, so I left it."));
+        }
+    }
+
+    private static long[] packTargets(List<BlockPos> targets) {
+        long[] packed = new long[targets.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = targets.get(i).asLong();
+        }
+        return packed;
+    }
+
+    private boolean isCarryFull() {
+        for (int slot = 0; slot < this.commandCarriedDrops.getContainerSize(); slot++) {
+            if (this.commandCarriedDrops.getItem(slot).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Joins a tree shared with other Climps of the same owner. Only the worker asked to {@code announce}
+     * speaks the task-start line, so a squad does not all talk at once.
+     */
+    public boolean joinSharedLogTask(ServerPlayer requester, SharedFellingTask task, boolean announce) {
+        if (this.level().isClientSide || !this.isOwnedBy(requester) || !this.canAcceptCommandTask()) {
+            return false;
+        }
+
+        BlockPos targetPos = task.claimNext(this);
+        if (targetPos == null) {
+            task.leave(this, null);
+            return false;
+        }
+        if (this.distanceToSqr(targetPos.getCenter()) > COMMAND_TASK_RANGE_SQR) {
+            task.leave(this, targetPos);
+            return false;
+        }
+
+        this.commandQueuedTargets.clear();
+        this.commandSharedTask = task;
+        task.start();
+        this.startLogTask(requester.getUUID(), task.taskId(), targetPos, true, task.anchorY(), announce ? requester : null);
+        return true;
+    }
+
+    private void startLogTask(
+            UUID requesterId,
+            long taskId,
+            BlockPos targetPos,
+            boolean chompMode,
+            int clusterAnchorY,
+            @Nullable ServerPlayer announceTo) {
+        // A chained job starts straight after the last tree ran out; drop whatever that one still held.
+        this.releaseOwnClaims();
+        this.commandTaskId = taskId;
+        this.commandOwnsClaims = this.commandSharedTask == null;
+        this.commandTargetPos = targetPos;
+        this.commandRequesterId = requesterId;
+        this.commandUnloadedWaitTicks = 0;
+        this.commandScanChompMode = chompMode;
+        this.commandClusterAnchorY = clusterAnchorY;
         this.commandScanInitialReachBonusBlocks = 0.0D;
         if (this.commandScanChompMode && targetPos.getY() > this.blockPosition().getY()) {
             double anchorDistanceBlocks = Math.sqrt(this.distanceToSqr(targetPos.getCenter()));
@@ -153,8 +706,12 @@ public class ClimpEntity extends PathfinderMob {
         this.commandTaskSucceeded = false;
         this.commandRecallRequested = false;
         this.commandTaskFailureReason = ClimpSpeechManager.TaskFailureReason.UNREACHABLE;
-        this.speechManager.onTaskStart(this, requester);
-        return true;
+        this.commandTaskQuiet = false;
+        this.watchTaskTargets();
+        this.scheduleClaimRenewal();
+        if (announceTo != null) {
+            this.speechManager.onTaskStart(this, announceTo);
+        }
     }
 
     public boolean hasCommandTask() {
@@ -167,6 +724,7 @@ public class ClimpEntity extends PathfinderMob {
             return false;
         }
 
+        this.leaveSharedTask(this.commandTargetPos);
         this.commandRequesterId = requester.getUUID();
         this.commandRecallRequested = true;
         this.commandTaskSucceeded = false;
@@ -174,6 +732,9 @@ public class ClimpEntity extends PathfinderMob {
         this.setCommandTaskStage(CommandTaskStage.RETURNING);
         this.commandBreakTicksRemaining = 0;
         this.commandQueuedTargets.clear();
+        this.releaseOwnClaims();
+        this.releasePendingJobClaims();
+        this.commandPendingJobs.clear();
         this.commandScanChompMode = false;
         this.commandClusterAnchorY = 0;
         this.commandScanInitialReachBonusBlocks = 0.0D;
@@ -183,11 +744,88 @@ public class ClimpEntity extends PathfinderMob {
     }
 
     public boolean canAcceptCommandTask() {
-        return this.commandTaskStage == CommandTaskStage.NONE && this.commandCooldownTicks <= 0;
+        return this.commandTaskStage == CommandTaskStage.NONE && this.remainingCooldownTicks() <= 0;
+    }
+
+    /**
+     * Whether a fresh task could start on the target from here, going by the same range check as
+     * {@link #assignLogTask} and {@link #joinSharedLogTask}.
+     */
+    public boolean isWithinTaskRange(BlockPos targetPos) {
+        return this.distanceToSqr(targetPos.getCenter()) <= COMMAND_TASK_RANGE_SQR;
     }
 
     public boolean isOnCommandCooldown() {
-        return this.commandTaskStage == CommandTaskStage.NONE && this.commandCooldownTicks > 0;
+        return this.commandTaskStage == CommandTaskStage.NONE && this.remainingCooldownTicks() > 0;
+    }
+
+    private int remainingCooldownTicks() {
+        return this.commandCooldownTimer != null ? this.commandCooldownTimer.remainingTicks() : this.commandCooldownTicksToArm;
+    }
+
+    /**
+     * Starts the timers a loaded Climp needs (the saved command cooldown, the timeout of a resumed task
+     * stage, idle speech), re-claims the logs of a resumed task and queued trees, and watches the task's
+     * targets. Called when Climp joins a server level.
+     */
+    public void onJoinedLevel() {
+        if (this.commandCooldownTicksToArm > 0) {
+            this.commandCooldownTimer = this.scheduleTimer(this.commandCooldownTicksToArm, () -> this.commandCooldownTimer = null);
+            this.commandCooldownTicksToArm = 0;
+        }
+        if (this.hasCommandTask() && (this.commandStageTimer == null || !this.commandStageTimer.isPending())) {
+            this.restartStageTimer();
+        }
+        if (this.hasCommandTask()) {
+            boolean targetClaimed = this.reclaimTaskTargets();
+            this.watchTaskTargets();
+            if (!targetClaimed) {
+                this.applyTargetSweep(this.commandTargetPos.asLong(), TaskBlockAccess.LogState.GONE);
+            }
+        }
+        this.reclaimPendingJobs();
+        if (this.hasCommandTask() || !this.commandPendingJobs.isEmpty()) {
+            this.scheduleClaimRenewal();
+        }
+        this.speechManager.arm(this);
+    }
+
+    /**
+     * Cancels every timer, keeping the remaining cooldown for saving, stops watching targets and releases
+     * every claim. Called when Climp leaves its level; the saved task is re-claimed if it comes back.
+     */
+    public void onLeftLevel() {
+        // Hand the unfinished part of a shared tree back to the workers still on it.
+        this.leaveSharedTask(this.commandTargetPos);
+        this.releaseOwnClaims();
+        this.releasePendingJobClaims();
+        this.unwatchTaskTargets();
+        this.commandCooldownTicksToArm = this.remainingCooldownTicks();
+        this.commandCooldownTimer = cancelTimer(this.commandCooldownTimer);
+        this.commandStageTimer = cancelTimer(this.commandStageTimer);
+        this.commandNoPathTimer = cancelTimer(this.commandNoPathTimer);
+        this.claimRenewTimer = cancelTimer(this.claimRenewTimer);
+        this.speechManager.disarm();
+    }
+
+    @Nullable
+    private ClimpTimerWheel.Timer scheduleTimer(int delayTicks, Runnable callback) {
+        if (!(this.level() instanceof ServerLevel serverLevel)) {
+            return null;
+        }
+        return ClimpTimerWheel.forLevel(serverLevel).schedule(delayTicks, () -> {
+            if (!this.isRemoved()) {
+                callback.run();
+            }
+        });
+    }
+
+    @Nullable
+    private static ClimpTimerWheel.Timer cancelTimer(@Nullable ClimpTimerWheel.Timer timer) {
+        if (timer != null) {
+            timer.cancel();
+        }
+        return null;
     }
 
     public boolean isOwnedBy(ServerPlayer player) {
@@ -198,8 +836,30 @@ public class ClimpEntity extends PathfinderMob {
         return this.ownerId != null;
     }
 
+    /**
+     * Binds Climp to a storage block in its current level; finished tasks unload there instead of at the
+     * requester. Pass null to unbind.
+     */
+    public void setDepositPos(@Nullable BlockPos pos) {
+        this.depositPos = pos == null ? null : pos.immutable();
+        this.depositDimension = pos == null ? null : this.level().dimension();
+    }
+
+    public boolean isDepositBoundTo(BlockPos pos) {
+        return pos.equals(this.depositPos) && this.level().dimension() == this.depositDimension;
+    }
+
+    @Nullable
+    public UUID getOwnerId() {
+        return this.ownerId;
+    }
+
     public void setOwner(ServerPlayer owner) {
         this.ownerId = owner.getUUID();
+        this.invalidateOwnerHandle(false);
+        if (this.level() instanceof ServerLevel serverLevel) {
+            ClimpRegistry.onOwnerChanged(serverLevel, this);
+        }
     }
 
     @Nullable
@@ -211,7 +871,8 @@ public class ClimpEntity extends PathfinderMob {
         this.clearBreakProgress();
 
         ServerPlayer requester = this.getCommandRequester();
-        if (!this.commandRecallRequested && requester != null && requester.level() == this.level()) {
+        if (!this.commandRecallRequested && !this.commandTaskQuiet
+                && requester != null && requester.level() == this.level()) {
             if (this.commandTaskSucceeded) {
                 this.speechManager.onTaskComplete(this, requester);
             } else {
@@ -225,44 +886,306 @@ public class ClimpEntity extends PathfinderMob {
         this.commandRequesterId = null;
         this.commandTaskStage = CommandTaskStage.NONE;
         this.commandBreakTicksRemaining = 0;
-        this.commandStageTicks = 0;
+        this.commandStageTimer = cancelTimer(this.commandStageTimer);
+        this.commandNoPathTimer = cancelTimer(this.commandNoPathTimer);
         this.commandTaskSucceeded = false;
         this.commandRecallRequested = false;
+        this.commandTaskQuiet = false;
         this.commandScanChompMode = false;
         this.commandClusterAnchorY = 0;
         this.commandScanInitialReachBonusBlocks = 0.0D;
         this.commandTaskFailureReason = ClimpSpeechManager.TaskFailureReason.UNREACHABLE;
-        this.commandCooldownTicks = COMMAND_TASK_COOLDOWN_TICKS;
+        this.commandLogsBroken = 0;
+        this.commandTargetsRemoved = 0;
+        this.unwatchTaskTargets();
+        this.releaseOwnClaims();
+        cancelTimer(this.commandCooldownTimer);
+        this.commandCooldownTimer = this.scheduleTimer(COMMAND_TASK_COOLDOWN_TICKS, () -> this.commandCooldownTimer = null);
         this.getNavigation().stop();
     }
 
+    /**
+     * Hands the carried drops to the requester's inventory; whatever does not fit is dropped at their
+     * feet (or Climp's, if they are gone) as full stacks.
+     */
     private void unloadCarriedDrops(@Nullable ServerPlayer requester) {
         if (this.commandCarriedDrops.isEmpty()) {
             return;
         }
 
-        double dropX = this.getX();
-        double dropY = this.getY() + 0.2D;
-        double dropZ = this.getZ();
-        if (requester != null && requester.level() == this.level() && requester.isAlive()) {
-            dropX = requester.getX();
-            dropY = requester.getY() + 0.2D;
-            dropZ = requester.getZ();
+        boolean requesterPresent = requester != null && requester.level() == this.level() && requester.isAlive();
+        for (ItemStack carriedStack : this.commandCarriedDrops.removeAllItems()) {
+            if (requesterPresent) {
+                requester.getInventory().add(carriedStack);
+            }
+            if (!carriedStack.isEmpty()) {
+                this.spillStack(requesterPresent ? requester : this, carriedStack);
+            }
         }
+    }
 
-        while (!this.commandCarriedDrops.isEmpty()) {
-            ItemStack carriedStack = this.commandCarriedDrops.removeFirst();
-            if (!carriedStack.isEmpty()) {
-                Containers.dropItemStack(this.level(), dropX, dropY, dropZ, carriedStack);
+    /**
+     * Drops the stack whole at the entity, unlike {@link net.minecraft.world.Containers#dropItemStack},
+     * which splits it into several small item entities.
+     */
+    private void spillStack(Entity at, ItemStack stack) {
+        ItemEntity itemEntity = new ItemEntity(this.level(), at.getX(), at.getY() + 0.2D, at.getZ(), stack);
+        itemEntity.setDefaultPickUpDelay();
+        this.level().addFreshEntity(itemEntity);
+    }
+
+    /**
+     * Known state of the current target. The world is read once per target; after that the state only
+     * changes through {@link #onWatchedTargetRemoved} and the level sweep.
+     */
+    private TaskBlockAccess.LogState probeTarget() {
+        if (this.commandTargetPos == null) {
+            return TaskBlockAccess.LogState.GONE;
+        }
+        long key = this.commandTargetPos.asLong();
+        if (this.targetStateKey != key) {
+            this.targetStateKey = key;
+            this.targetState = TaskBlockAccess.probeLog(this.level(), this.commandTargetPos);
+        }
+        return this.targetState;
+    }
+
+    private void onWatchedTargetRemoved(long packedPos) {
+        this.commandTargetsRemoved++;
+        if (this.commandTargetPos != null && this.commandTargetPos.asLong() == packedPos) {
+            this.targetStateKey = packedPos;
+            this.targetState = TaskBlockAccess.LogState.GONE;
+        } else {
+            this.commandRemovedTargets.add(packedPos);
+        }
+    }
+
+    /**
+     * Watches the current target and the own queue, dropping queued targets that are no longer logs.
+     * Runs when a task starts and when a Climp with a saved task joins the level, so each target is read
+     * from the world once rather than every time it comes up.
+     */
+    private void watchTaskTargets() {
+        if (!(this.level() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+        ClimpTargetIndex index = ClimpTargetIndex.forLevel(serverLevel);
+        index.unwatchAll(this.targetWatcher);
+        this.commandRemovedTargets.clear();
+        this.commandQueuedTargets.removeIf(target -> {
+            if (TaskBlockAccess.probeLog(serverLevel, target) == TaskBlockAccess.LogState.GONE) {
+                this.commandTargetsRemoved++;
+                return true;
             }
+            index.watch(this.targetWatcher, target.asLong());
+            return false;
+        });
+        if (this.commandTargetPos != null) {
+            index.watch(this.targetWatcher, this.commandTargetPos.asLong());
+            this.targetStateKey = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Claims the current target and own queue again under the task id, dropping queued targets another
+     * task took meanwhile. Returns false if the current target is one of them.
+     */
+    private boolean reclaimTaskTargets() {
+        if (!this.commandOwnsClaims || this.commandRequesterId == null
+                || !(this.level() instanceof ServerLevel serverLevel)) {
+            return true;
+        }
+        List<BlockPos> targets = new ArrayList<>(this.commandQueuedTargets.size() + 1);
+        if (this.commandTargetPos != null) {
+            targets.add(this.commandTargetPos);
+        }
+        targets.addAll(this.commandQueuedTargets);
+        List<BlockPos> claimedTargets = ClimpClaimRegistry.forLevel(serverLevel)
+                .claimAll(targets, this.commandRequesterId, this.commandTaskId, serverLevel.getGameTime());
+        if (claimedTargets.size() == targets.size()) {
+            return true;
+        }
+        Set<BlockPos> claimed = new HashSet<>(claimedTargets);
+        int before = this.commandQueuedTargets.size();
+        this.commandQueuedTargets.removeIf(target -> !claimed.contains(target));
+        this.commandTargetsRemoved += before - this.commandQueuedTargets.size();
+        return this.commandTargetPos == null || claimed.contains(this.commandTargetPos);
+    }
+
+    /**
+     * Claims every queued tree again under its job id, dropping logs another task took meanwhile and
+     * jobs with none left.
+     */
+    private void reclaimPendingJobs() {
+        if (this.commandPendingJobs.isEmpty() || !(this.level() instanceof ServerLevel)) {
+            return;
+        }
+        List<PendingJob> jobs = new ArrayList<>(this.commandPendingJobs);
+        this.commandPendingJobs.clear();
+        for (PendingJob job : jobs) {
+            List<BlockPos> claimedTargets = this.reclaimJob(job);
+            if (claimedTargets.size() == job.targets().length) {
+                this.commandPendingJobs.addLast(job);
+            } else if (!claimedTargets.isEmpty()) {
+                this.commandPendingJobs.addLast(new PendingJob(job.requesterId(), job.taskId(), packTargets(claimedTargets)));
+            }
+        }
+    }
+
+    /**
+     * The job's targets this Climp holds now, claimed (or renewed) under the job's id.
+     */
+    private List<BlockPos> reclaimJob(PendingJob job) {
+        List<BlockPos> targets = new ArrayList<>(job.targets().length);
+        for (long packedTarget : job.targets()) {
+            targets.add(BlockPos.of(packedTarget));
+        }
+        if (!(this.level() instanceof ServerLevel serverLevel)) {
+            return targets;
+        }
+        return ClimpClaimRegistry.forLevel(serverLevel)
+                .claimAll(targets, job.requesterId(), job.taskId(), serverLevel.getGameTime());
+    }
+
+    private void scheduleClaimRenewal() {
+        if (this.claimRenewTimer == null || !this.claimRenewTimer.isPending()) {
+            this.claimRenewTimer = this.scheduleTimer(ClimpClaimRegistry.CLAIM_RENEW_INTERVAL_TICKS, this::renewClaims);
+        }
+    }
+
+    /**
+     * Renews the claims on the logs this Climp still has to break (the current target and its queue, or
+     * its shared tree) and on its queued trees, so a long task or a tree waiting behind one never lapses.
+     * Reschedules itself while there is work left.
+     */
+    private void renewClaims() {
+        this.claimRenewTimer = null;
+        if (this.commandTaskStage == CommandTaskStage.TO_TARGET || this.commandTaskStage == CommandTaskStage.BREAKING) {
+            boolean targetClaimed;
+            if (this.commandSharedTask != null) {
+                this.commandSharedTask.renewClaims();
+                targetClaimed = this.commandTargetPos == null || this.claimTarget(this.commandTargetPos);
+            } else {
+                targetClaimed = this.reclaimTaskTargets();
+            }
+            if (!targetClaimed) {
+                this.applyTargetSweep(this.commandTargetPos.asLong(), TaskBlockAccess.LogState.GONE);
+            }
+        }
+        this.reclaimPendingJobs();
+        if (this.hasCommandTask() || !this.commandPendingJobs.isEmpty()) {
+            this.scheduleClaimRenewal();
+        }
+    }
+
+    /**
+     * Claims the target this Climp is moving on to, renewing the task's claim. Returns false if another
+     * task took it after this task's claim lapsed.
+     */
+    private boolean claimTarget(BlockPos target) {
+        if (this.commandRequesterId == null || !(this.level() instanceof ServerLevel serverLevel)) {
+            return true;
+        }
+        return ClimpClaimRegistry.forLevel(serverLevel)
+                .claim(target, this.commandRequesterId, this.commandTaskId, serverLevel.getGameTime());
+    }
+
+    private void releaseOwnClaims() {
+        if (this.commandOwnsClaims && this.level() instanceof ServerLevel serverLevel) {
+            ClimpClaimRegistry.forLevel(serverLevel).releaseTask(this.commandTaskId);
+        }
+        this.commandOwnsClaims = false;
+    }
+
+    private void releasePendingJobClaims() {
+        if (this.commandPendingJobs.isEmpty() || !(this.level() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+        ClimpClaimRegistry claims = ClimpClaimRegistry.forLevel(serverLevel);
+        for (PendingJob job : this.commandPendingJobs) {
+            claims.releaseTask(job.taskId());
+        }
+    }
+
+    private void unwatchTaskTargets() {
+        if (this.level() instanceof ServerLevel serverLevel) {
+            ClimpTargetIndex.forLevel(serverLevel).unwatchAll(this.targetWatcher);
         }
+        this.commandRemovedTargets.clear();
     }
 
-    private boolean isTargetLog() {
-        return this.commandTargetPos != null && this.level().getBlockState(this.commandTargetPos).is(BlockTags.LOGS);
+    /**
+     * Nothing left to chop. A task that broke nothing because its logs were removed by someone else
+     * reports that instead of success.
+     */
+    private void markQueueExhausted() {
+        if (this.commandLogsBroken == 0 && this.commandTargetsRemoved > 0) {
+            this.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.TARGET_REMOVED);
+        } else {
+            this.markReturningToRequester(true, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+        }
+    }
+
+    CommandTaskStage commandTaskStage() {
+        return this.commandTaskStage;
+    }
+
+    @Nullable
+    BlockPos commandTargetPos() {
+        return this.commandTargetPos;
+    }
+
+    void applyOwnerSnapshot(int serverTick, double ownerDistanceSqr) {
+        this.snapshotTick = serverTick;
+        this.snapshotOwnerDistanceSqr = ownerDistanceSqr;
+    }
+
+    /**
+     * Safety-net result from the level sweep, for changes no block event reported.
+     */
+    void applyTargetSweep(long targetKey, TaskBlockAccess.LogState state) {
+        if (state == TaskBlockAccess.LogState.GONE
+                && !(this.targetStateKey == targetKey && this.targetState == TaskBlockAccess.LogState.GONE)) {
+            this.commandTargetsRemoved++;
+        }
+        this.targetStateKey = targetKey;
+        this.targetState = state;
+    }
+
+    /**
+     * Squared distance to the owner at the start of this tick; infinite if the owner is not followable
+     * here, NaN if there is no snapshot for this tick.
+     */
+    private double ownerDistanceSqrThisTick() {
+        return this.level() instanceof ServerLevel serverLevel && this.snapshotTick == serverLevel.getServer().getTickCount()
+                ? this.snapshotOwnerDistanceSqr
+                : Double.NaN;
+    }
+
+    /**
+     * The target's chunk is not loaded: hold still instead of pathing into it, ask for a ticket, and
+     * every second look for a loaded target to do first. Gives up after the stage timeout.
+     */
+    private void waitForUnloadedTarget() {
+        this.getNavigation().stop();
+        if (this.level() instanceof ServerLevel serverLevel) {
+            TaskBlockAccess.keepLoaded(serverLevel, this.commandTargetPos);
+        }
+        this.commandUnloadedWaitTicks++;
+        if (this.commandUnloadedWaitTicks > COMMAND_STAGE_TIMEOUT_TICKS) {
+            this.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+            return;
+        }
+        if (this.commandUnloadedWaitTicks % 20 == 0) {
+            this.commandQueuedTargets.addLast(this.commandTargetPos);
+            this.advanceToNextQueuedTarget();
+        }
     }
 
     private void beginBreakingTarget() {
+        if (this.level() instanceof ServerLevel serverLevel) {
+            TaskBlockAccess.keepLoaded(serverLevel, this.commandTargetPos);
+        }
         this.setCommandTaskStage(CommandTaskStage.BREAKING);
         this.commandBreakTicksRemaining = COMMAND_BREAK_DURATION_TICKS;
         this.getNavigation().stop();
@@ -273,44 +1196,141 @@ public class ClimpEntity extends PathfinderMob {
         if (!succeeded) {
             this.commandTaskFailureReason = failureReason;
         }
-        this.setCommandTaskStage(CommandTaskStage.RETURNING);
+        this.setCommandTaskStage(this.shouldDeposit() ? CommandTaskStage.DEPOSITING : CommandTaskStage.RETURNING);
         this.commandBreakTicksRemaining = 0;
         this.clearBreakProgress();
+        // A log this Climp could not reach is dropped rather than handed to the next worker to fail on.
+        this.leaveSharedTask(null);
+    }
+
+    private boolean shouldDeposit() {
+        return this.depositPos != null
+                && this.level().dimension() == this.depositDimension
+                && !this.commandCarriedDrops.isEmpty();
+    }
+
+    /**
+     * Inserts the carried drops into the bound storage. Returns false if the storage is gone, in which
+     * case the binding is dropped and the drops stay carried.
+     */
+    private boolean depositCarriedDrops(ServerLevel serverLevel) {
+        IItemHandler storage = serverLevel.isLoaded(this.depositPos)
+                ? serverLevel.getCapability(Capabilities.ItemHandler.BLOCK, this.depositPos, null)
+                : null;
+        if (storage == null) {
+            this.setDepositPos(null);
+            return false;
+        }
+
+        for (ItemStack carriedStack : this.commandCarriedDrops.removeAllItems()) {
+            ItemStack remainder = ItemHandlerHelper.insertItemStacked(storage, carriedStack, false);
+            if (!remainder.isEmpty()) {
+                this.spillStack(this, remainder);
+            }
+        }
+        return true;
     }
 
+    /**
+     * Picks the next target that is still a log. Targets in unloaded chunks are pushed to the back of
+     * the queue; if nothing loaded is left, Climp waits at the first of them (see
+     * {@link #waitForUnloadedTarget}).
+     */
     private boolean advanceToNextQueuedTarget() {
         this.clearBreakProgress();
-        while (!this.commandQueuedTargets.isEmpty()) {
-            BlockPos nextTarget = this.commandQueuedTargets.removeFirst();
-            if (this.level().getBlockState(nextTarget).is(BlockTags.LOGS)) {
-                this.commandTargetPos = nextTarget;
-                this.setCommandTaskStage(CommandTaskStage.TO_TARGET);
-                this.commandBreakTicksRemaining = 0;
-                return true;
+        List<BlockPos> unloadedTargets = new ArrayList<>();
+        BlockPos nextTarget;
+        // Removed targets were already filtered out by pollNextTarget; only loading and the claim are
+        // checked here.
+        while ((nextTarget = this.pollNextTarget()) != null) {
+            if (!this.level().isLoaded(nextTarget)) {
+                unloadedTargets.add(nextTarget);
+            } else if (this.claimTarget(nextTarget)) {
+                this.commandUnloadedWaitTicks = 0;
+                break;
+            } else {
+                this.commandTargetsRemoved++;
             }
         }
-        return false;
-    }
+        this.commandQueuedTargets.addAll(unloadedTargets);
 
-    private void captureTargetDropsAndBreak(ServerLevel serverLevel, BlockPos target) {
-        AABB captureBox = new AABB(target).inflate(1.25D);
-        Set<UUID> preExistingItemEntityIds = new HashSet<>();
-        for (ItemEntity existingItem : serverLevel.getEntitiesOfClass(ItemEntity.class, captureBox, ItemEntity::isAlive)) {
-            preExistingItemEntityIds.add(existingItem.getUUID());
+        if (nextTarget == null) {
+            if (unloadedTargets.isEmpty()) {
+                return this.chainNextPendingJob();
+            }
+            nextTarget = this.commandQueuedTargets.pollFirst();
+        }
+        if (this.level() instanceof ServerLevel serverLevel) {
+            ClimpTargetIndex.forLevel(serverLevel).watch(this.targetWatcher, nextTarget.asLong());
         }
+        this.commandTargetPos = nextTarget;
+        this.setCommandTaskStage(CommandTaskStage.TO_TARGET);
+        this.commandBreakTicksRemaining = 0;
+        return true;
+    }
 
-        serverLevel.destroyBlock(target, true, this);
+    /**
+     * Moves straight on to the next queued tree unless the carry is full, in which case Climp returns
+     * first and picks the queue up again afterwards.
+     */
+    private boolean chainNextPendingJob() {
+        if (this.commandPendingJobs.isEmpty() || this.isCarryFull()) {
+            return false;
+        }
+        this.leaveSharedTask(null);
+        return this.startNextPendingJob();
+    }
 
-        for (ItemEntity droppedItem : serverLevel.getEntitiesOfClass(ItemEntity.class, captureBox, ItemEntity::isAlive)) {
-            if (preExistingItemEntityIds.contains(droppedItem.getUUID())) {
-                continue;
+    @Nullable
+    private BlockPos pollNextTarget() {
+        if (this.commandSharedTask != null) {
+            BlockPos claimed = this.commandSharedTask.claimNext(this);
+            if (claimed != null) {
+                return claimed;
             }
+        }
+        // Own queue: the whole tree when working alone, deferred unloaded claims on a shared tree.
+        BlockPos next;
+        while ((next = this.commandQueuedTargets.pollFirst()) != null && this.commandRemovedTargets.remove(next.asLong())) {
+            // Pushed as removed by the target index; drop it.
+        }
+        return next;
+    }
+
+    /**
+     * Leaves the shared tree, if any. Only the last worker to leave speaks for the task.
+     */
+    private void leaveSharedTask(@Nullable BlockPos unfinishedClaim) {
+        if (this.commandSharedTask == null) {
+            return;
+        }
+        this.commandTaskQuiet = !this.commandSharedTask.leave(this, unfinishedClaim);
+        this.commandSharedTask = null;
+    }
+
+    /**
+     * Rolls the log's loot table with Climp as the breaker and carries the result, so no item entities
+     * are spawned (or picked up from whatever was already lying nearby).
+     */
+    private void captureTargetDropsAndBreak(ServerLevel serverLevel, BlockPos target) {
+        BlockState state = serverLevel.getBlockState(target);
+        BlockEntity blockEntity = state.hasBlockEntity() ? serverLevel.getBlockEntity(target) : null;
+        List<ItemStack> drops = Block.getDrops(state, serverLevel, target, blockEntity, this, ItemStack.EMPTY);
+        // Our own break is not an external removal.
+        ClimpTargetIndex.forLevel(serverLevel).unwatch(this.targetWatcher, target.asLong());
+        boolean destroyed = serverLevel.destroyBlock(target, false, this);
+        ClimpClaimRegistry.forLevel(serverLevel).release(target, this.commandTaskId);
+        if (!destroyed) {
+            return;
+        }
+        this.commandLogsBroken++;
 
-            ItemStack stack = droppedItem.getItem().copy();
-            if (!stack.isEmpty()) {
-                this.commandCarriedDrops.addLast(stack);
+        state.spawnAfterBreak(serverLevel, target, ItemStack.EMPTY, true);
+        for (ItemStack stack : drops) {
+            ItemStack overflow = this.commandCarriedDrops.addItem(stack);
+            if (!overflow.isEmpty()) {
+                this.spillStack(this, overflow);
             }
-            droppedItem.discard();
         }
     }
 
@@ -334,42 +1354,122 @@ public class ClimpEntity extends PathfinderMob {
 
     private void setCommandTaskStage(CommandTaskStage stage) {
         this.commandTaskStage = stage;
-        this.commandStageTicks = 0;
-        this.commandNoPathTicks = 0;
+        this.commandNoPathTimer = cancelTimer(this.commandNoPathTimer);
+        this.restartStageTimer();
     }
 
-    private boolean incrementAndCheckStageTimeout() {
-        this.commandStageTicks++;
-        return this.commandStageTicks > COMMAND_STAGE_TIMEOUT_TICKS;
+    private void restartStageTimer() {
+        cancelTimer(this.commandStageTimer);
+        this.commandStageTimer = this.scheduleTimer(COMMAND_STAGE_TIMEOUT_TICKS, this::onStageTimedOut);
+    }
+
+    private void onStageTimedOut() {
+        this.commandStageTimer = null;
+        switch (this.commandTaskStage) {
+            case TO_TARGET, BREAKING -> this.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+            case RETURNING -> this.completeCommandTask();
+            // Storage out of reach: fall back to handing the drops to the requester.
+            case DEPOSITING -> this.setCommandTaskStage(CommandTaskStage.RETURNING);
+            case NONE -> {
+                // No-op.
+            }
+        }
+    }
+
+    /**
+     * Navigation has given up short of the target or the storage: fail the task, or give up on
+     * depositing, unless it moves again within {@link #COMMAND_NO_PATH_FAIL_TICKS}.
+     */
+    private void startNoPathTimer() {
+        if (this.commandNoPathTimer != null && this.commandNoPathTimer.isPending()) {
+            return;
+        }
+        this.commandNoPathTimer = this.scheduleTimer(COMMAND_NO_PATH_FAIL_TICKS, () -> {
+            this.commandNoPathTimer = null;
+            if (this.commandTaskStage == CommandTaskStage.TO_TARGET) {
+                this.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+            } else if (this.commandTaskStage == CommandTaskStage.DEPOSITING) {
+                this.setCommandTaskStage(CommandTaskStage.RETURNING);
+            }
+        });
+    }
+
+    /**
+     * Drops the cached owner handle; the next lookup resolves it again. Called from logout (with
+     * {@code ownerOffline}), login, respawn and dimension-change events for the owner.
+     */
+    public void invalidateOwnerHandle(boolean ownerOffline) {
+        this.cachedOwner = null;
+        this.ownerKnownAbsent = ownerOffline;
     }
 
     @Nullable
     private ServerPlayer getCommandRequester() {
-        if (this.commandRequesterId == null || this.level().getServer() == null) {
+        if (this.commandRequesterId == null) {
             return null;
         }
-        return this.level().getServer().getPlayerList().getPlayer(this.commandRequesterId);
+        // Tasks are only accepted from the owner, so this is normally the cached owner handle.
+        if (this.commandRequesterId.equals(this.ownerId)) {
+            return this.getOwnerPlayer();
+        }
+        return this.lookupPlayer(this.commandRequesterId);
     }
 
     @Nullable
     private ServerPlayer getOwnerPlayer() {
-        if (this.ownerId == null || this.level().getServer() == null) {
+        if (this.ownerId == null || this.ownerKnownAbsent) {
+            return null;
+        }
+        if (this.cachedOwner == null || this.cachedOwner.isRemoved()) {
+            this.cachedOwner = this.lookupPlayer(this.ownerId);
+            this.ownerKnownAbsent = this.cachedOwner == null;
+        }
+        return this.cachedOwner;
+    }
+
+    @Nullable
+    private ServerPlayer lookupPlayer(UUID playerId) {
+        if (this.level().getServer() == null) {
             return null;
         }
-        return this.level().getServer().getPlayerList().getPlayer(this.ownerId);
+        return this.level().getServer().getPlayerList().getPlayer(playerId);
     }
 
     private void clearBreakProgress() {
-        if (this.commandTargetPos != null && this.level() instanceof ServerLevel serverLevel) {
-            serverLevel.destroyBlockProgress(this.getId(), this.commandTargetPos, -1);
+        if (this.commandSentBreakStage >= 0 && this.commandTargetPos != null && this.level() instanceof ServerLevel serverLevel) {
+            ClimpFeedbackOutput.sendBreakProgress(serverLevel, this, this.commandTargetPos, -1);
+        }
+        this.commandSentBreakStage = -1;
+    }
+
+    /**
+     * Sends the crack stage only when it changes: ten updates per log instead of one per tick.
+     */
+    private void updateBreakProgress(ServerLevel serverLevel, BlockPos target, int stage) {
+        if (stage != this.commandSentBreakStage) {
+            this.commandSentBreakStage = stage;
+            ClimpFeedbackOutput.sendBreakProgress(serverLevel, this, target, stage);
         }
     }
 
-    private enum CommandTaskStage {
+    private record PendingJob(UUID requesterId, long taskId, long[] targets) {
+    }
+
+    private enum ActivityTier {
+        /** Full rate: a task is running or a player is nearby. */
+        ACTIVE,
+        /** No player nearby: AI runs every climpIdleTickInterval ticks. */
+        IDLE,
+        /** Owner offline and no player nearby: no ticks until woken. */
+        DORMANT
+    }
+
+    enum CommandTaskStage {
         NONE,
         TO_TARGET,
         BREAKING,
-        RETURNING
+        RETURNING,
+        DEPOSITING
     }
 
     private static final class CommandTargetGoal extends Goal {
@@ -404,6 +1504,7 @@ public class ClimpEntity extends PathfinderMob {
                 case TO_TARGET -> tickToTarget();
                 case BREAKING -> tickBreaking();
                 case RETURNING -> tickReturning();
+                case DEPOSITING -> tickDepositing();
                 case NONE -> {
                     // No-op.
                 }
@@ -417,9 +1518,14 @@ public class ClimpEntity extends PathfinderMob {
                 return;
             }
 
-            if (!this.climp.isTargetLog()) {
+            TaskBlockAccess.LogState targetState = this.climp.probeTarget();
+            if (targetState == TaskBlockAccess.LogState.UNLOADED) {
+                this.climp.waitForUnloadedTarget();
+                return;
+            }
+            if (targetState != TaskBlockAccess.LogState.LOG) {
                 if (!this.climp.advanceToNextQueuedTarget()) {
-                    this.climp.markReturningToRequester(true, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+                    this.climp.markQueueExhausted();
                 }
                 return;
             }
@@ -440,17 +1546,9 @@ public class ClimpEntity extends PathfinderMob {
             }
 
             if (this.climp.getNavigation().isDone() && targetDistanceSqr > effectiveFallbackReachSqr) {
-                this.climp.commandNoPathTicks++;
-                if (this.climp.commandNoPathTicks >= COMMAND_NO_PATH_FAIL_TICKS) {
-                    this.climp.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
-                    return;
-                }
+                this.climp.startNoPathTimer();
             } else {
-                this.climp.commandNoPathTicks = 0;
-            }
-
-            if (this.climp.incrementAndCheckStageTimeout()) {
-                this.climp.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+                this.climp.commandNoPathTimer = cancelTimer(this.climp.commandNoPathTimer);
             }
         }
 
@@ -461,9 +1559,15 @@ public class ClimpEntity extends PathfinderMob {
                 return;
             }
 
-            if (!this.climp.isTargetLog()) {
+            TaskBlockAccess.LogState targetState = this.climp.probeTarget();
+            if (targetState == TaskBlockAccess.LogState.UNLOADED) {
+                this.climp.clearBreakProgress();
+                this.climp.setCommandTaskStage(CommandTaskStage.TO_TARGET);
+                return;
+            }
+            if (targetState != TaskBlockAccess.LogState.LOG) {
                 if (!this.climp.advanceToNextQueuedTarget()) {
-                    this.climp.markReturningToRequester(true, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+                    this.climp.markQueueExhausted();
                 }
                 return;
             }
@@ -472,22 +1576,22 @@ public class ClimpEntity extends PathfinderMob {
             if (this.climp.level() instanceof ServerLevel serverLevel) {
                 int elapsed = COMMAND_BREAK_DURATION_TICKS - this.climp.commandBreakTicksRemaining;
                 int progress = Math.min(9, (elapsed * 10) / COMMAND_BREAK_DURATION_TICKS);
-                serverLevel.destroyBlockProgress(this.climp.getId(), target, progress);
+                this.climp.updateBreakProgress(serverLevel, target, progress);
             }
 
             this.climp.commandBreakTicksRemaining--;
             if (this.climp.commandBreakTicksRemaining <= 0) {
-                if (this.climp.level() instanceof ServerLevel serverLevel && this.climp.isTargetLog()) {
-                    this.climp.captureTargetDropsAndBreak(serverLevel, target);
+                // Probed live before breaking, in case the block changed without an event.
+                if (this.climp.level() instanceof ServerLevel serverLevel) {
+                    if (TaskBlockAccess.probeLog(serverLevel, target) == TaskBlockAccess.LogState.LOG) {
+                        this.climp.captureTargetDropsAndBreak(serverLevel, target);
+                    } else {
+                        this.climp.commandTargetsRemoved++;
+                    }
                 }
                 if (!this.climp.advanceToNextQueuedTarget()) {
-                    this.climp.markReturningToRequester(true, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
+                    this.climp.markQueueExhausted();
                 }
-                return;
-            }
-
-            if (this.climp.incrementAndCheckStageTimeout()) {
-                this.climp.markReturningToRequester(false, ClimpSpeechManager.TaskFailureReason.UNREACHABLE);
             }
         }
 
@@ -506,11 +1610,44 @@ public class ClimpEntity extends PathfinderMob {
 
             if (this.climp.distanceToSqr(requester) <= COMMAND_RETURN_REACH_SQR) {
                 this.climp.completeCommandTask();
+            }
+        }
+
+        private void tickDepositing() {
+            BlockPos storagePos = this.climp.depositPos;
+            if (storagePos == null || !(this.climp.level() instanceof ServerLevel serverLevel)) {
+                this.climp.setCommandTaskStage(CommandTaskStage.RETURNING);
                 return;
             }
 
-            if (this.climp.incrementAndCheckStageTimeout()) {
-                this.climp.completeCommandTask();
+            double storageDistanceSqr = this.climp.distanceToSqr(storagePos.getCenter());
+            boolean inFallbackReach =
+                    storageDistanceSqr <= COMMAND_APPROACH_FALLBACK_REACH_BLOCKS * COMMAND_APPROACH_FALLBACK_REACH_BLOCKS;
+            this.climp.getLookControl().setLookAt(storagePos.getX() + 0.5D, storagePos.getY() + 0.5D, storagePos.getZ() + 0.5D);
+            if (--this.recalcPathTicks <= 0) {
+                this.recalcPathTicks = this.adjustedTickDelay(8);
+                if (!this.climp.getNavigation().moveTo(storagePos.getX() + 0.5D, storagePos.getY(), storagePos.getZ() + 0.5D, this.speedModifier)
+                        && !inFallbackReach) {
+                    // No path at all: hand the drops to the requester now rather than at the stage timeout.
+                    this.climp.setCommandTaskStage(CommandTaskStage.RETURNING);
+                    return;
+                }
+            }
+
+            if (storageDistanceSqr <= COMMAND_TASK_REACH_BLOCKS * COMMAND_TASK_REACH_BLOCKS
+                    || (this.climp.getNavigation().isDone() && inFallbackReach)) {
+                if (this.climp.depositCarriedDrops(serverLevel)) {
+                    this.climp.completeCommandTask();
+                } else {
+                    this.climp.setCommandTaskStage(CommandTaskStage.RETURNING);
+                }
+                return;
+            }
+
+            if (this.climp.getNavigation().isDone()) {
+                this.climp.startNoPathTimer();
+            } else {
+                this.climp.commandNoPathTimer = cancelTimer(this.climp.commandNoPathTimer);
             }
         }
     }
@@ -523,6 +1660,7 @@ public class ClimpEntity extends PathfinderMob {
         @Nullable
         private Player targetPlayer;
         private int recalcPathTicks;
+        private int failedPathCount;
 
         private FollowOwnerGoal(ClimpEntity climp, double speedModifier, float stopDistance, float maxDistance) {
             this.climp = climp;
@@ -534,8 +1672,14 @@ public class ClimpEntity extends PathfinderMob {
 
         @Override
         public boolean canUse() {
+            double ownerDistanceSqr = this.climp.ownerDistanceSqrThisTick();
+            if (ownerDistanceSqr == Double.POSITIVE_INFINITY || ownerDistanceSqr <= (double) (this.stopDistance * this.stopDistance)) {
+                // Owner away or already close at the start of the tick; no need to look further.
+                return false;
+            }
+
             Player ownerPlayer = this.climp.getOwnerPlayer();
-            if (ownerPlayer == null || ownerPlayer.isSpectator()) {
+            if (ownerPlayer == null || ownerPlayer.isSpectator() || ownerPlayer.level() != this.climp.level()) {
                 return false;
             }
 
@@ -545,18 +1689,29 @@ public class ClimpEntity extends PathfinderMob {
 
         @Override
         public boolean canContinueToUse() {
-            if (this.targetPlayer == null || !this.targetPlayer.isAlive() || this.targetPlayer.isSpectator()) {
+            if (this.targetPlayer == null || !this.targetPlayer.isAlive() || this.targetPlayer.isSpectator()
+                    || this.targetPlayer.level() != this.climp.level()) {
                 return false;
             }
 
             double distanceSqr = this.climp.distanceToSqr(this.targetPlayer);
-            return distanceSqr > (double) (this.stopDistance * this.stopDistance)
-                    && distanceSqr < (double) (this.maxDistance * this.maxDistance);
+            if (distanceSqr <= (double) (this.stopDistance * this.stopDistance)) {
+                return false;
+            }
+            // With teleporting on, distance is handled in tick() instead of giving up.
+            return teleportDistance() > 0 || distanceSqr < (double) (this.maxDistance * this.maxDistance);
+        }
+
+        @Override
+        public void start() {
+            this.failedPathCount = 0;
+            this.climp.followingOwner = true;
         }
 
         @Override
         public void stop() {
             this.targetPlayer = null;
+            this.climp.followingOwner = false;
             this.climp.getNavigation().stop();
         }
 
@@ -567,10 +1722,42 @@ public class ClimpEntity extends PathfinderMob {
             }
 
             this.climp.getLookControl().setLookAt(this.targetPlayer, 18.0F, this.climp.getMaxHeadXRot());
-            if (--this.recalcPathTicks <= 0) {
-                this.recalcPathTicks = this.adjustedTickDelay(10);
-                this.climp.getNavigation().moveTo(this.targetPlayer, this.speedModifier);
+            if (--this.recalcPathTicks > 0) {
+                return;
+            }
+            this.recalcPathTicks = this.adjustedTickDelay(10);
+
+            int teleportDistance = teleportDistance();
+            if (teleportDistance > 0 && this.climp.distanceToSqr(this.targetPlayer) > (double) teleportDistance * teleportDistance) {
+                this.teleportToOwner();
+                return;
+            }
+
+            Path path = this.climp.getNavigation().createPath(this.targetPlayer, 0);
+            if (path == null || !path.canReach()) {
+                this.failedPathCount++;
+            } else {
+                this.failedPathCount = 0;
+            }
+            if (teleportDistance > 0 && this.failedPathCount >= FOLLOW_FAILED_PATHS_BEFORE_TELEPORT) {
+                this.teleportToOwner();
+                return;
+            }
+            this.climp.getNavigation().moveTo(path, this.speedModifier);
+        }
+
+        /**
+         * Skips the long path once pathing is pointless. If no safe spot is found, the next try waits for
+         * the next path interval.
+         */
+        private void teleportToOwner() {
+            if (this.climp.tryTeleportToOwner(this.targetPlayer)) {
+                this.failedPathCount = 0;
             }
         }
+
+        private static int teleportDistance() {
+            return ClimpConfig.CLIMP_FOLLOW_TELEPORT_DISTANCE.getAsInt();
+        }
     }
 }
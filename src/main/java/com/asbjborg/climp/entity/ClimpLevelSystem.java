@@ -0,0 +1,305 @@
+package com.asbjborg.climp.entity;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import com.asbjborg.climp.ClimpConfig;
+import com.asbjborg.climp.speech.ClimpSpeechManager;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntitySelector;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * Once-per-level-tick pass over every Climp in a level, run before entities tick. Climps are bucketed
+ * by {@link ClimpEntity.CommandTaskStage} into packed arrays, and the work they would otherwise each
+ * repeat is done once:
+ * <ul>
+ *   <li>players and their positions are snapshotted, so "is anyone near" and "who is nearest" checks
+ *   (activity tiers, idle speech) read packed arrays instead of querying the level, and idle Climps a
+ *   player has come near are woken from dormancy or have their parked idle speech resumed, so neither
+ *   needs polling of its own;</li>
+ *   <li>each owner is resolved once and every Climp gets its owner distance for follow checks;</li>
+ *   <li>every {@link #TARGET_SWEEP_INTERVAL_TICKS} ticks, all current task targets are re-validated in
+ *   one chunk-ordered pass, one chunk lookup per chunk. Target removals normally arrive as pushes from
+ *   {@link ClimpTargetIndex}; the sweep only catches changes no block event reported.</li>
+ * </ul>
+ * The goals still drive movement and breaking; they read these results instead of polling the world.
+ * Results are stamped with the server tick count, which unlike the game time does not move between
+ * this pass and the entity ticks. Server thread only.
+ */
+public final class ClimpLevelSystem {
+    private static final Map<ResourceKey<Level>, ClimpLevelSystem> BY_LEVEL = new HashMap<>();
+    private static final int STAGES = ClimpEntity.CommandTaskStage.values().length;
+    private static final int TARGET_SWEEP_INTERVAL_TICKS = 20;
+
+    private int snapshotTick = -1;
+    private int playerCount;
+    private ServerPlayer[] players = new ServerPlayer[8];
+    private double[] playerX = new double[8];
+    private double[] playerY = new double[8];
+    private double[] playerZ = new double[8];
+
+    private ClimpEntity[] climpsByStage = new ClimpEntity[64];
+    private final int[] stageStart = new int[STAGES + 1];
+    private final int[] stageNext = new int[STAGES];
+    private long[] targetKeys = new long[64];
+    private int[] targetClimpIndex = new int[64];
+    private int[] sortedTargets = new int[64];
+    private final Object2ObjectOpenHashMap<UUID, ServerPlayer> ownersThisTick = new Object2ObjectOpenHashMap<>();
+
+    private int lastClimpCount;
+    private int lastTargetCount;
+    private long lastPassNanos;
+    private long totalPassNanos;
+    private long totalClimpsProcessed;
+
+    private ClimpLevelSystem() {
+    }
+
+    public static ClimpLevelSystem forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpLevelSystem());
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    public static void tick(ServerLevel level) {
+        forLevel(level).run(level);
+    }
+
+    public static String describeStats() {
+        int climps = 0;
+        int targets = 0;
+        long lastNanos = 0L;
+        long totalNanos = 0L;
+        long processed = 0L;
+        for (ClimpLevelSystem system : BY_LEVEL.values()) {
+            climps += system.lastClimpCount;
+            targets += system.lastTargetCount;
+            lastNanos += system.lastPassNanos;
+            totalNanos += system.totalPassNanos;
+            processed += system.totalClimpsProcessed;
+        }
+        long nanosPerClimp = processed == 0L ? 0L : totalNanos / processed;
+        return "Climp level pass: climps=" + climps + ", validatedTargets=" + targets
+                + ", lastPassMicros=" + (lastNanos / 1000L) + ", avgNanosPerClimp=" + nanosPerClimp;
+    }
+
+    /**
+     * Whether a living, non-spectator player was within the radius at the start of this tick. Falls back
+     * to a live query if the snapshot is not from this tick.
+     */
+    boolean hasPlayerWithin(ServerLevel level, double x, double y, double z, double radius) {
+        if (this.snapshotTick != level.getServer().getTickCount()) {
+            return level.hasNearbyAlivePlayer(x, y, z, radius);
+        }
+        return this.isPlayerWithin(x, y, z, radius);
+    }
+
+    private boolean isPlayerWithin(double x, double y, double z, double radius) {
+        double radiusSqr = radius * radius;
+        for (int i = 0; i < this.playerCount; i++) {
+            double dx = this.playerX[i] - x;
+            double dy = this.playerY[i] - y;
+            double dz = this.playerZ[i] - z;
+            if (dx * dx + dy * dy + dz * dz < radiusSqr) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The nearest living, non-spectator player within the radius of the entity at the start of this
+     * tick, or null. Falls back to a live query if the snapshot is not from this tick.
+     */
+    @Nullable
+    public ServerPlayer nearestPlayer(ServerLevel level, Entity entity, double radius) {
+        if (this.snapshotTick != level.getServer().getTickCount()) {
+            return level.getNearestPlayer(entity, radius) instanceof ServerPlayer player ? player : null;
+        }
+        ServerPlayer nearest = null;
+        double nearestDistanceSqr = radius * radius;
+        for (int i = 0; i < this.playerCount; i++) {
+            double dx = this.playerX[i] - entity.getX();
+            double dy = this.playerY[i] - entity.getY();
+            double dz = this.playerZ[i] - entity.getZ();
+            double distanceSqr = dx * dx + dy * dy + dz * dz;
+            if (distanceSqr < nearestDistanceSqr) {
+                nearest = this.players[i];
+                nearestDistanceSqr = distanceSqr;
+            }
+        }
+        return nearest;
+    }
+
+    private void run(ServerLevel level) {
+        long startNanos = System.nanoTime();
+        this.snapshotTick = level.getServer().getTickCount();
+        this.snapshotPlayers(level);
+
+        ClimpRegistry registry = ClimpRegistry.forLevel(level);
+        int climpCount = this.bucketByStage(registry);
+        this.notifyIdleClimpsNearPlayers();
+        this.snapshotOwnerDistances(level, climpCount);
+        if (level.getGameTime() % TARGET_SWEEP_INTERVAL_TICKS == 0L) {
+            this.lastTargetCount = this.validateTargets(level);
+        }
+
+        this.ownersThisTick.clear();
+        Arrays.fill(this.climpsByStage, 0, climpCount, null);
+        this.lastClimpCount = climpCount;
+        this.lastPassNanos = System.nanoTime() - startNanos;
+        if (climpCount > 0) {
+            this.totalPassNanos += this.lastPassNanos;
+            this.totalClimpsProcessed += climpCount;
+        }
+    }
+
+    private void snapshotPlayers(ServerLevel level) {
+        int count = 0;
+        for (ServerPlayer player : level.players()) {
+            if (!EntitySelector.NO_SPECTATORS.test(player) || !player.isAlive()) {
+                continue;
+            }
+            if (count == this.playerX.length) {
+                this.players = Arrays.copyOf(this.players, count * 2);
+                this.playerX = Arrays.copyOf(this.playerX, count * 2);
+                this.playerY = Arrays.copyOf(this.playerY, count * 2);
+                this.playerZ = Arrays.copyOf(this.playerZ, count * 2);
+            }
+            this.players[count] = player;
+            this.playerX[count] = player.getX();
+            this.playerY[count] = player.getY();
+            this.playerZ[count] = player.getZ();
+            count++;
+        }
+        Arrays.fill(this.players, count, Math.max(count, this.playerCount), null);
+        this.playerCount = count;
+    }
+
+    /**
+     * Counting sort of the level's Climps by task stage into {@link #climpsByStage}.
+     */
+    private int bucketByStage(ClimpRegistry registry) {
+        int climpCount = registry.size();
+        if (this.climpsByStage.length < climpCount) {
+            this.climpsByStage = new ClimpEntity[Math.max(climpCount, this.climpsByStage.length * 2)];
+        }
+        Arrays.fill(this.stageStart, 0);
+        for (ClimpEntity climp : registry.climps()) {
+            this.stageStart[climp.commandTaskStage().ordinal() + 1]++;
+        }
+        for (int stage = 0; stage < STAGES; stage++) {
+            this.stageStart[stage + 1] += this.stageStart[stage];
+        }
+        System.arraycopy(this.stageStart, 0, this.stageNext, 0, STAGES);
+        for (ClimpEntity climp : registry.climps()) {
+            this.climpsByStage[this.stageNext[climp.commandTaskStage().ordinal()]++] = climp;
+        }
+        return climpCount;
+    }
+
+    private void notifyIdleClimpsNearPlayers() {
+        if (this.playerCount == 0) {
+            return;
+        }
+        double radius = ClimpConfig.CLIMP_IDLE_ACTIVITY_RADIUS.getAsInt();
+        int from = this.stageStart[ClimpEntity.CommandTaskStage.NONE.ordinal()];
+        int to = this.stageStart[ClimpEntity.CommandTaskStage.NONE.ordinal() + 1];
+        for (int i = from; i < to; i++) {
+            ClimpEntity climp = this.climpsByStage[i];
+            if (climp.isDormant()) {
+                if (this.isPlayerWithin(climp.getX(), climp.getY(), climp.getZ(), radius)) {
+                    climp.wakeUp();
+                }
+            } else if (climp.isWaitingForListener()
+                    && this.isPlayerWithin(climp.getX(), climp.getY(), climp.getZ(), ClimpSpeechManager.IDLE_SPEECH_RADIUS)) {
+                climp.onListenerNearby();
+            }
+        }
+    }
+
+    private void snapshotOwnerDistances(ServerLevel level, int climpCount) {
+        for (int i = 0; i < climpCount; i++) {
+            ClimpEntity climp = this.climpsByStage[i];
+            UUID ownerId = climp.getOwnerId();
+            ServerPlayer owner = null;
+            if (ownerId != null) {
+                if (this.ownersThisTick.containsKey(ownerId)) {
+                    owner = this.ownersThisTick.get(ownerId);
+                } else {
+                    owner = level.getServer().getPlayerList().getPlayer(ownerId);
+                    this.ownersThisTick.put(ownerId, owner);
+                }
+            }
+            double distanceSqr = owner == null || owner.level() != level || owner.isSpectator()
+                    ? Double.POSITIVE_INFINITY
+                    : climp.distanceToSqr(owner);
+            climp.applyOwnerSnapshot(this.snapshotTick, distanceSqr);
+        }
+    }
+
+    /**
+     * Probes the targets of every TO_TARGET and BREAKING Climp, visiting them in chunk order so each
+     * chunk is fetched once.
+     */
+    private int validateTargets(ServerLevel level) {
+        int from = this.stageStart[ClimpEntity.CommandTaskStage.TO_TARGET.ordinal()];
+        int to = this.stageStart[ClimpEntity.CommandTaskStage.BREAKING.ordinal() + 1];
+        int targetCount = 0;
+        if (this.targetKeys.length < to - from) {
+            this.targetKeys = new long[Math.max(to - from, this.targetKeys.length * 2)];
+            this.targetClimpIndex = new int[this.targetKeys.length];
+            this.sortedTargets = new int[this.targetKeys.length];
+        }
+        for (int i = from; i < to; i++) {
+            BlockPos target = this.climpsByStage[i].commandTargetPos();
+            if (target != null) {
+                this.targetKeys[targetCount] = target.asLong();
+                this.targetClimpIndex[targetCount] = i;
+                this.sortedTargets[targetCount] = targetCount;
+                targetCount++;
+            }
+        }
+        if (targetCount == 0) {
+            return 0;
+        }
+
+        long[] keys = this.targetKeys;
+        IntArrays.quickSort(this.sortedTargets, 0, targetCount, (a, b) -> Long.compare(chunkKeyOf(keys[a]), chunkKeyOf(keys[b])));
+
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        long loadedChunkKey = Long.MIN_VALUE;
+        LevelChunk chunk = null;
+        for (int i = 0; i < targetCount; i++) {
+            int slot = this.sortedTargets[i];
+            cursor.set(keys[slot]);
+            long chunkKey = chunkKeyOf(keys[slot]);
+            if (chunkKey != loadedChunkKey) {
+                loadedChunkKey = chunkKey;
+                chunk = level.getChunkSource().getChunkNow(ChunkPos.getX(chunkKey), ChunkPos.getZ(chunkKey));
+            }
+            this.climpsByStage[this.targetClimpIndex[slot]].applyTargetSweep(keys[slot], TaskBlockAccess.probeLog(chunk, cursor));
+        }
+        return targetCount;
+    }
+
+    private static long chunkKeyOf(long packedPos) {
+        return ChunkPos.asLong(BlockPos.getX(packedPos) >> 4, BlockPos.getZ(packedPos) >> 4);
+    }
+}
@@ -0,0 +1,203 @@
+package com.asbjborg.climp.entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+/**
+ * Live Climps of one server level, indexed by owner and by chunk. Kept current from level join/leave,
+ * section moves and {@link ClimpEntity#setOwner}, so lookups cost the number of matching Climps instead
+ * of an entity-section walk.
+ */
+public final class ClimpRegistry {
+    private static final Map<ResourceKey<Level>, ClimpRegistry> BY_LEVEL = new HashMap<>();
+
+    private final Map<ClimpEntity, Indexed> indexedByClimp = new HashMap<>();
+    private final Map<UUID, Set<ClimpEntity>> climpsByOwner = new HashMap<>();
+    private final Long2ObjectOpenHashMap<Set<ClimpEntity>> climpsByChunk = new Long2ObjectOpenHashMap<>();
+
+    private ClimpRegistry() {
+    }
+
+    public static ClimpRegistry forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpRegistry());
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    /**
+     * Runs the action for every loaded Climp the player owns, in any level.
+     */
+    public static void forEachOwned(MinecraftServer server, UUID ownerId, Consumer<ClimpEntity> action) {
+        for (ServerLevel level : server.getAllLevels()) {
+            ClimpRegistry registry = BY_LEVEL.get(level.dimension());
+            if (registry != null) {
+                registry.ownedBy(ownerId).forEach(action);
+            }
+        }
+    }
+
+    public static void onJoin(ServerLevel level, ClimpEntity climp) {
+        ClimpRegistry registry = forLevel(level);
+        registry.remove(climp);
+        Indexed indexed = new Indexed(climp.getOwnerId(), climp.chunkPosition().toLong());
+        registry.indexedByClimp.put(climp, indexed);
+        registry.addToOwner(indexed.ownerId, climp);
+        registry.climpsByChunk.computeIfAbsent(indexed.chunkKey, key -> new LinkedHashSet<>()).add(climp);
+    }
+
+    public static void onLeave(ServerLevel level, ClimpEntity climp) {
+        ClimpRegistry registry = BY_LEVEL.get(level.dimension());
+        if (registry != null) {
+            registry.remove(climp);
+        }
+    }
+
+    public static void onSectionChanged(ServerLevel level, ClimpEntity climp, SectionPos newSection) {
+        ClimpRegistry registry = BY_LEVEL.get(level.dimension());
+        Indexed indexed = registry == null ? null : registry.indexedByClimp.get(climp);
+        long chunkKey = ChunkPos.asLong(newSection.x(), newSection.z());
+        if (indexed == null || indexed.chunkKey == chunkKey) {
+            return;
+        }
+        registry.removeFromChunk(indexed.chunkKey, climp);
+        indexed.chunkKey = chunkKey;
+        registry.climpsByChunk.computeIfAbsent(chunkKey, key -> new LinkedHashSet<>()).add(climp);
+    }
+
+    static void onOwnerChanged(ServerLevel level, ClimpEntity climp) {
+        ClimpRegistry registry = BY_LEVEL.get(level.dimension());
+        Indexed indexed = registry == null ? null : registry.indexedByClimp.get(climp);
+        if (indexed == null) {
+            return;
+        }
+        registry.removeFromOwner(indexed.ownerId, climp);
+        indexed.ownerId = climp.getOwnerId();
+        registry.addToOwner(indexed.ownerId, climp);
+    }
+
+    public int size() {
+        return this.indexedByClimp.size();
+    }
+
+    /**
+     * Every Climp indexed in this level, for the level-wide pass. Not a copy; do not hold on to it.
+     */
+    Collection<ClimpEntity> climps() {
+        return this.indexedByClimp.keySet();
+    }
+
+    /**
+     * Live Climps owned by the player in this level.
+     */
+    public List<ClimpEntity> ownedBy(UUID ownerId) {
+        Set<ClimpEntity> owned = this.climpsByOwner.get(ownerId);
+        if (owned == null) {
+            return Collections.emptyList();
+        }
+        List<ClimpEntity> alive = new ArrayList<>(owned.size());
+        for (ClimpEntity climp : owned) {
+            if (climp.isAlive()) {
+                alive.add(climp);
+            }
+        }
+        return alive;
+    }
+
+    /**
+     * Live Climps owned by the player whose bounding box touches the box.
+     */
+    public List<ClimpEntity> ownedWithin(UUID ownerId, AABB box) {
+        List<ClimpEntity> owned = this.ownedBy(ownerId);
+        owned.removeIf(climp -> !climp.getBoundingBox().intersects(box));
+        return owned;
+    }
+
+    /**
+     * Live Climps of any owner whose bounding box touches the box, found through the chunk index.
+     */
+    public List<ClimpEntity> within(AABB box) {
+        List<ClimpEntity> found = new ArrayList<>();
+        int minChunkX = SectionPos.blockToSectionCoord(box.minX - 1.0D);
+        int maxChunkX = SectionPos.blockToSectionCoord(box.maxX + 1.0D);
+        int minChunkZ = SectionPos.blockToSectionCoord(box.minZ - 1.0D);
+        int maxChunkZ = SectionPos.blockToSectionCoord(box.maxZ + 1.0D);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                Set<ClimpEntity> inChunk = this.climpsByChunk.get(ChunkPos.asLong(chunkX, chunkZ));
+                if (inChunk == null) {
+                    continue;
+                }
+                for (ClimpEntity climp : inChunk) {
+                    if (climp.isAlive() && climp.getBoundingBox().intersects(box)) {
+                        found.add(climp);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    private void remove(ClimpEntity climp) {
+        Indexed indexed = this.indexedByClimp.remove(climp);
+        if (indexed == null) {
+            return;
+        }
+        this.removeFromOwner(indexed.ownerId, climp);
+        this.removeFromChunk(indexed.chunkKey, climp);
+    }
+
+    private void addToOwner(@Nullable UUID ownerId, ClimpEntity climp) {
+        if (ownerId != null) {
+            this.climpsByOwner.computeIfAbsent(ownerId, key -> new LinkedHashSet<>()).add(climp);
+        }
+    }
+
+    private void removeFromOwner(@Nullable UUID ownerId, ClimpEntity climp) {
+        if (ownerId == null) {
+            return;
+        }
+        Set<ClimpEntity> owned = this.climpsByOwner.get(ownerId);
+        if (owned != null && owned.remove(climp) && owned.isEmpty()) {
+            this.climpsByOwner.remove(ownerId);
+        }
+    }
+
+    private void removeFromChunk(long chunkKey, ClimpEntity climp) {
+        Set<ClimpEntity> inChunk = this.climpsByChunk.get(chunkKey);
+        if (inChunk != null && inChunk.remove(climp) && inChunk.isEmpty()) {
+            this.climpsByChunk.remove(chunkKey);
+        }
+    }
+
+    private static final class Indexed {
+        @Nullable
+        private UUID ownerId;
+        private long chunkKey;
+
+        private Indexed(@Nullable UUID ownerId, long chunkKey) {
+            this.ownerId = ownerId;
+            this.chunkKey = chunkKey;
+        }
+    }
+}
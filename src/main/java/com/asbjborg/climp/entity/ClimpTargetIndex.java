@@ -0,0 +1,133 @@
+package com.asbjborg.climp.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.Level;
+
+/**
+ * Per-level index from task target positions (packed {@link BlockPos} longs) to whoever is waiting to
+ * break them. Block-change events push removals to the watchers, so tasks learn a target is gone
+ * without reading the world every tick. Server thread only.
+ */
+public final class ClimpTargetIndex {
+    private static final Map<ResourceKey<Level>, ClimpTargetIndex> BY_LEVEL = new HashMap<>();
+
+    private static long notifications;
+
+    private final Long2ObjectOpenHashMap<ObjectArrayList<TargetWatcher>> watchersByPos = new Long2ObjectOpenHashMap<>();
+    private final Map<TargetWatcher, LongOpenHashSet> positionsByWatcher = new HashMap<>();
+
+    /**
+     * Told once when a watched position stops being a log for a reason other than the watcher's own
+     * break. The position is no longer watched afterwards.
+     */
+    @FunctionalInterface
+    interface TargetWatcher {
+        void onTargetRemoved(long packedPos);
+    }
+
+    private ClimpTargetIndex() {
+    }
+
+    static ClimpTargetIndex forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpTargetIndex());
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    /**
+     * A block changed in place (break, place, piston move, fire, ...). Watchers are notified if a
+     * watched position no longer holds a log.
+     */
+    public static void onBlockChanged(ServerLevel level, BlockPos pos) {
+        ClimpTargetIndex index = BY_LEVEL.get(level.dimension());
+        if (index == null || !index.watchersByPos.containsKey(pos.asLong())) {
+            return;
+        }
+        if (!level.getBlockState(pos).is(BlockTags.LOGS)) {
+            index.notifyRemoved(pos.asLong());
+        }
+    }
+
+    /**
+     * The block at the position is about to be destroyed (explosions).
+     */
+    public static void onBlockRemoved(ServerLevel level, BlockPos pos) {
+        ClimpTargetIndex index = BY_LEVEL.get(level.dimension());
+        if (index != null) {
+            index.notifyRemoved(pos.asLong());
+        }
+    }
+
+    public static String describeStats() {
+        int positions = 0;
+        int watchers = 0;
+        for (ClimpTargetIndex index : BY_LEVEL.values()) {
+            positions += index.watchersByPos.size();
+            watchers += index.positionsByWatcher.size();
+        }
+        return "Climp target index: watchedPositions=" + positions + ", watchers=" + watchers
+                + ", removalsPushed=" + notifications;
+    }
+
+    void watch(TargetWatcher watcher, long packedPos) {
+        if (this.positionsByWatcher.computeIfAbsent(watcher, key -> new LongOpenHashSet()).add(packedPos)) {
+            this.watchersByPos.computeIfAbsent(packedPos, key -> new ObjectArrayList<>(1)).add(watcher);
+        }
+    }
+
+    void unwatch(TargetWatcher watcher, long packedPos) {
+        LongOpenHashSet positions = this.positionsByWatcher.get(watcher);
+        if (positions == null || !positions.remove(packedPos)) {
+            return;
+        }
+        if (positions.isEmpty()) {
+            this.positionsByWatcher.remove(watcher);
+        }
+        this.removeWatcherAt(packedPos, watcher);
+    }
+
+    void unwatchAll(TargetWatcher watcher) {
+        LongOpenHashSet positions = this.positionsByWatcher.remove(watcher);
+        if (positions == null) {
+            return;
+        }
+        LongIterator iterator = positions.iterator();
+        while (iterator.hasNext()) {
+            this.removeWatcherAt(iterator.nextLong(), watcher);
+        }
+    }
+
+    private void removeWatcherAt(long packedPos, TargetWatcher watcher) {
+        ObjectArrayList<TargetWatcher> watchers = this.watchersByPos.get(packedPos);
+        if (watchers != null && watchers.remove(watcher) && watchers.isEmpty()) {
+            this.watchersByPos.remove(packedPos);
+        }
+    }
+
+    private void notifyRemoved(long packedPos) {
+        ObjectArrayList<TargetWatcher> watchers = this.watchersByPos.remove(packedPos);
+        if (watchers == null) {
+            return;
+        }
+        for (TargetWatcher watcher : watchers) {
+            LongOpenHashSet positions = this.positionsByWatcher.get(watcher);
+            if (positions != null && positions.remove(packedPos) && positions.isEmpty()) {
+                this.positionsByWatcher.remove(watcher);
+            }
+            notifications++;
+            watcher.onTargetRemoved(packedPos);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.asbjborg.climp.entity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+/**
+ * Hierarchical timing wheel for Climp deadlines (cooldowns, stage timeouts, idle-speech checks), one per
+ * server level and advanced once per level tick. Four wheels of 64 slots cover 1, 64, 4096 and 262144
+ * ticks per slot; a timer sits in the coarsest wheel its delay allows and cascades down as it nears.
+ * Scheduling and cancelling are O(1); a tick only touches the timers that are due or cascading.
+ * Cancelled timers are dropped lazily when their slot comes up. Server thread only.
+ */
+public final class ClimpTimerWheel {
+    private static final Map<ResourceKey<Level>, ClimpTimerWheel> BY_LEVEL = new HashMap<>();
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int WHEELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * WHEELS)) - 1;
+
+    private final List<List<Timer>> slots = new ArrayList<>(WHEELS * SLOTS);
+    private long currentTick;
+    private int pendingTimers;
+    private int callbacksLastTick;
+    private long callbacksTotal;
+    private long ticksAdvanced;
+
+    ClimpTimerWheel() {
+        for (int i = 0; i < WHEELS * SLOTS; i++) {
+            this.slots.add(new ArrayList<>());
+        }
+    }
+
+    public static ClimpTimerWheel forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpTimerWheel());
+    }
+
+    public static void tick(ServerLevel level) {
+        ClimpTimerWheel wheel = BY_LEVEL.get(level.dimension());
+        if (wheel != null) {
+            wheel.advance();
+        }
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    public static String describeStats() {
+        int pending = 0;
+        int callbacksLastTick = 0;
+        long callbacks = 0L;
+        long ticks = 0L;
+        for (ClimpTimerWheel wheel : BY_LEVEL.values()) {
+            pending += wheel.pendingTimers;
+            callbacksLastTick += wheel.callbacksLastTick;
+            callbacks += wheel.callbacksTotal;
+            ticks += wheel.ticksAdvanced;
+        }
+        double perTick = ticks == 0L ? 0.0D : (double) callbacks / ticks;
+        return "Climp timers: pending=" + pending + ", callbacksLastTick=" + callbacksLastTick
+                + ", callbacksPerLevelTick=" + String.format("%.4f", perTick);
+    }
+
+    /**
+     * Runs the callback once, {@code delayTicks} level ticks from now (at least one).
+     */
+    public Timer schedule(int delayTicks, Runnable callback) {
+        long delay = Math.min(MAX_DELAY_TICKS, Math.max(1L, delayTicks));
+        Timer timer = new Timer(this, this.currentTick + delay, callback);
+        this.insert(timer);
+        this.pendingTimers++;
+        return timer;
+    }
+
+    private void insert(Timer timer) {
+        long delta = timer.deadline - this.currentTick;
+        int wheel = 0;
+        while (wheel < WHEELS - 1 && delta >= 1L << (SLOT_BITS * (wheel + 1))) {
+            wheel++;
+        }
+        int slot = (int) ((timer.deadline >>> (SLOT_BITS * wheel)) & SLOT_MASK);
+        this.slots.get(wheel * SLOTS + slot).add(timer);
+    }
+
+    void advance() {
+        this.currentTick++;
+        this.ticksAdvanced++;
+        for (int wheel = 1; wheel < WHEELS; wheel++) {
+            if ((this.currentTick & ((1L << (SLOT_BITS * wheel)) - 1)) != 0L) {
+                break;
+            }
+            int slot = (int) ((this.currentTick >>> (SLOT_BITS * wheel)) & SLOT_MASK);
+            for (Timer timer : this.takeSlot(wheel, slot)) {
+                if (!timer.cancelled) {
+                    this.insert(timer);
+                }
+            }
+        }
+
+        int callbacks = 0;
+        for (Timer timer : this.takeSlot(0, (int) (this.currentTick & SLOT_MASK))) {
+            if (timer.cancelled) {
+                continue;
+            }
+            timer.fired = true;
+            this.pendingTimers--;
+            callbacks++;
+            timer.callback.run();
+        }
+        this.callbacksLastTick = callbacks;
+        this.callbacksTotal += callbacks;
+    }
+
+    private List<Timer> takeSlot(int wheel, int slot) {
+        int index = wheel * SLOTS + slot;
+        List<Timer> due = this.slots.get(index);
+        if (due.isEmpty()) {
+            return due;
+        }
+        this.slots.set(index, new ArrayList<>());
+        return due;
+    }
+
+    public static final class Timer {
+        private final ClimpTimerWheel wheel;
+        private final long deadline;
+        private final Runnable callback;
+        private boolean cancelled;
+        private boolean fired;
+
+        private Timer(ClimpTimerWheel wheel, long deadline, Runnable callback) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.callback = callback;
+        }
+
+        public boolean isPending() {
+            return !this.cancelled && !this.fired;
+        }
+
+        public int remainingTicks() {
+            return this.isPending() ? (int) Math.max(0L, this.deadline - this.wheel.currentTick) : 0;
+        }
+
+        public void cancel() {
+            if (this.isPending()) {
+                this.cancelled = true;
+                this.wheel.pendingTimers--;
+            }
+        }
+    }
+}
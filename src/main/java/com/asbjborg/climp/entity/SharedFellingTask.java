@@ -0,0 +1,221 @@
+package com.asbjborg.climp.entity;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+
+/**
+ * One chomp-mode tree shared by several Climps of the same owner. Targets start in a shared queue in
+ * route order; each worker takes a small batch at a time and claims one log from it, so a log is only
+ * ever held by one worker. A worker whose batch and the shared queue are both empty steals the back half
+ * of the largest remaining batch. Unclaimed logs are watched in the {@link ClimpTargetIndex}; ones that
+ * vanish are skipped when they come up. The whole tree is held in the {@link ClimpClaimRegistry} under
+ * one task id until the last worker leaves. Server thread only.
+ */
+public final class SharedFellingTask {
+    private static final int BATCH_SIZE = 4;
+
+    private final Deque<BlockPos> sharedTargets;
+    private final Map<ClimpEntity, Deque<BlockPos>> batchesByWorker = new LinkedHashMap<>();
+    private final int anchorY;
+    private final ServerLevel level;
+    private final UUID ownerId;
+    private final long taskId;
+    private final LongOpenHashSet removedTargets = new LongOpenHashSet();
+    private final ClimpTargetIndex.TargetWatcher targetWatcher = this.removedTargets::add;
+    @Nullable
+    private ClimpTargetIndex watchedIn;
+
+    private SharedFellingTask(ServerLevel level, UUID ownerId, long taskId, List<BlockPos> orderedTargets) {
+        this.level = level;
+        this.ownerId = ownerId;
+        this.taskId = taskId;
+        this.sharedTargets = new ArrayDeque<>(orderedTargets.size());
+        for (BlockPos target : orderedTargets) {
+            this.sharedTargets.addLast(target.immutable());
+        }
+        this.anchorY = orderedTargets.isEmpty() ? 0 : orderedTargets.get(0).getY();
+    }
+
+    /**
+     * Claims the tree for a new shared task, skipping logs another task holds. Returns null if none are
+     * left. Call {@link #abandon} if no worker ends up joining.
+     */
+    @Nullable
+    public static SharedFellingTask claim(ServerLevel level, UUID ownerId, List<BlockPos> orderedTargets) {
+        long taskId = ClimpClaimRegistry.newTaskId();
+        List<BlockPos> claimed = ClimpClaimRegistry.forLevel(level).claimAll(orderedTargets, ownerId, taskId, level.getGameTime());
+        return claimed.isEmpty() ? null : new SharedFellingTask(level, ownerId, taskId, claimed);
+    }
+
+    /**
+     * Releases the claims of a task nobody joined.
+     */
+    public void abandon() {
+        if (this.watchedIn == null) {
+            ClimpClaimRegistry.forLevel(this.level).releaseTask(this.taskId);
+        }
+    }
+
+    int anchorY() {
+        return this.anchorY;
+    }
+
+    long taskId() {
+        return this.taskId;
+    }
+
+    /**
+     * Starts watching every unhanded log. Called when a worker joins; only the first call does anything.
+     */
+    void start() {
+        if (this.watchedIn != null) {
+            return;
+        }
+        this.watchedIn = ClimpTargetIndex.forLevel(this.level);
+        for (BlockPos target : this.sharedTargets) {
+            this.watchedIn.watch(this.targetWatcher, target.asLong());
+        }
+        for (Deque<BlockPos> batch : this.batchesByWorker.values()) {
+            for (BlockPos target : batch) {
+                this.watchedIn.watch(this.targetWatcher, target.asLong());
+            }
+        }
+    }
+
+    /**
+     * Renews the claims on every unhanded log. Logs another task took after the claim lapsed are treated
+     * as removed and skipped when they come up. Called by the workers' claim renewal.
+     */
+    void renewClaims() {
+        ClimpClaimRegistry claims = ClimpClaimRegistry.forLevel(this.level);
+        long gameTime = this.level.getGameTime();
+        for (BlockPos target : this.sharedTargets) {
+            this.renewClaim(claims, target, gameTime);
+        }
+        for (Deque<BlockPos> batch : this.batchesByWorker.values()) {
+            for (BlockPos target : batch) {
+                this.renewClaim(claims, target, gameTime);
+            }
+        }
+    }
+
+    private void renewClaim(ClimpClaimRegistry claims, BlockPos target, long gameTime) {
+        if (!this.removedTargets.contains(target.asLong()) && !claims.claim(target, this.ownerId, this.taskId, gameTime)) {
+            this.removedTargets.add(target.asLong());
+        }
+    }
+
+    /**
+     * Claims the worker's next log: from its own batch, then a fresh batch off the shared queue, then
+     * stolen from another worker. Returns null once the whole tree is handed out.
+     */
+    @Nullable
+    BlockPos claimNext(ClimpEntity worker) {
+        Deque<BlockPos> batch = this.batchesByWorker.computeIfAbsent(worker, key -> new ArrayDeque<>());
+        while (true) {
+            if (batch.isEmpty()) {
+                for (int i = 0; i < BATCH_SIZE && !this.sharedTargets.isEmpty(); i++) {
+                    batch.addLast(this.sharedTargets.removeFirst());
+                }
+            }
+            if (batch.isEmpty()) {
+                this.stealInto(batch);
+            }
+            BlockPos claimed = batch.pollFirst();
+            if (claimed == null || !this.removedTargets.remove(claimed.asLong())) {
+                if (claimed != null && this.watchedIn != null) {
+                    // The worker watches its own claim from here on.
+                    this.watchedIn.unwatch(this.targetWatcher, claimed.asLong());
+                }
+                return claimed;
+            }
+        }
+    }
+
+    /**
+     * Returns the worker's unclaimed logs (and the given unfinished claim, if any) to the front of the
+     * shared queue and drops the worker.
+     *
+     * @return true if no workers are left on the task
+     */
+    boolean leave(ClimpEntity worker, @Nullable BlockPos unfinishedClaim) {
+        Deque<BlockPos> batch = this.batchesByWorker.remove(worker);
+        if (batch != null) {
+            Iterator<BlockPos> reversed = batch.descendingIterator();
+            while (reversed.hasNext()) {
+                this.sharedTargets.addFirst(reversed.next());
+            }
+        }
+        if (unfinishedClaim != null) {
+            this.sharedTargets.addFirst(unfinishedClaim);
+            if (this.watchedIn != null) {
+                this.watchedIn.watch(this.targetWatcher, unfinishedClaim.asLong());
+            }
+        }
+        if (!this.batchesByWorker.isEmpty()) {
+            return false;
+        }
+        // Workers that failed to join leave before the task starts; the claims stay for the next one.
+        if (this.watchedIn != null) {
+            this.watchedIn.unwatchAll(this.targetWatcher);
+            ClimpClaimRegistry.forLevel(this.level).releaseTask(this.taskId);
+        }
+        return true;
+    }
+
+    /**
+     * The logs the worker saves in its own queue, in order, since the shared task itself is not saved:
+     * its unclaimed batch and, for the lead (longest-serving) worker, every log not handed out yet. Each
+     * worker saves its own batch, so between them nothing unbroken is lost. A worker saved while the
+     * others keep going may save logs they still break; the claims sort that out when it reloads.
+     */
+    List<BlockPos> savedTargetsOf(ClimpEntity worker) {
+        List<BlockPos> saved = new ArrayList<>();
+        Deque<BlockPos> batch = this.batchesByWorker.get(worker);
+        if (batch != null) {
+            this.addUnremoved(saved, batch);
+        }
+        if (!this.batchesByWorker.isEmpty() && this.batchesByWorker.keySet().iterator().next() == worker) {
+            this.addUnremoved(saved, this.sharedTargets);
+        }
+        return saved;
+    }
+
+    private void addUnremoved(List<BlockPos> into, Deque<BlockPos> targets) {
+        for (BlockPos target : targets) {
+            if (!this.removedTargets.contains(target.asLong())) {
+                into.add(target);
+            }
+        }
+    }
+
+    private void stealInto(Deque<BlockPos> batch) {
+        Deque<BlockPos> victim = null;
+        for (Deque<BlockPos> candidate : this.batchesByWorker.values()) {
+            if (candidate != batch && !candidate.isEmpty() && (victim == null || candidate.size() > victim.size())) {
+                victim = candidate;
+            }
+        }
+        if (victim == null) {
+            return;
+        }
+
+        // Take the back half (rounded up); the victim keeps the logs next to where it is working.
+        int stealCount = (victim.size() + 1) / 2;
+        for (int i = 0; i < stealCount; i++) {
+            batch.addFirst(victim.removeLast());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.asbjborg.climp.entity;
+
+import java.util.Comparator;
+
+import javax.annotation.Nullable;
+
+import com.asbjborg.climp.ClimpConfig;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+/**
+ * World reads for Climp tasks that never load a chunk: positions in chunks that are not loaded report
+ * {@link LogState#UNLOADED} instead of blocking the server thread on a synchronous load.
+ */
+final class TaskBlockAccess {
+    private static final int TICKET_LIFESPAN_TICKS = 20 * 10;
+    private static final TicketType<ChunkPos> TASK_TICKET = TicketType.create(
+            "climp_task", Comparator.comparingLong(ChunkPos::toLong), TICKET_LIFESPAN_TICKS);
+
+    enum LogState {
+        LOG,
+        GONE,
+        UNLOADED
+    }
+
+    private TaskBlockAccess() {
+    }
+
+    static LogState probeLog(Level level, BlockPos pos) {
+        if (!level.isLoaded(pos)) {
+            return LogState.UNLOADED;
+        }
+        return level.getBlockState(pos).is(BlockTags.LOGS) ? LogState.LOG : LogState.GONE;
+    }
+
+    /**
+     * Same as {@link #probeLog(Level, BlockPos)} for a caller that already fetched the chunk with
+     * {@code getChunkNow}; a null chunk means not loaded.
+     */
+    static LogState probeLog(@Nullable LevelChunk chunk, BlockPos pos) {
+        if (chunk == null) {
+            return LogState.UNLOADED;
+        }
+        return chunk.getBlockState(pos).is(BlockTags.LOGS) ? LogState.LOG : LogState.GONE;
+    }
+
+    /**
+     * Asks for the chunk at the position to be (or stay) loaded for a few seconds, if enabled. The load
+     * itself is scheduled by the chunk system and never waited on.
+     */
+    static void keepLoaded(ServerLevel level, BlockPos pos) {
+        if (!ClimpConfig.COMMAND_TASK_CHUNK_TICKETS.getAsBoolean()) {
+            return;
+        }
+        ChunkPos chunkPos = new ChunkPos(pos);
+        level.getChunkSource().addRegionTicket(TASK_TICKET, chunkPos, 1, chunkPos);
+    }
+}
@@ -3,19 +3,33 @@ package com.asbjborg.climp.event;
 import com.asbjborg.climp.ClimpConfig;
 import com.asbjborg.climp.ClimpMod;
 import com.asbjborg.climp.data.ClimpRuntimeConfigData;
+import com.asbjborg.climp.entity.ClimpClaimRegistry;
+import com.asbjborg.climp.entity.ClimpEntity;
+import com.asbjborg.climp.entity.ClimpLevelSystem;
+import com.asbjborg.climp.entity.ClimpRegistry;
+import com.asbjborg.climp.entity.ClimpTargetIndex;
+import com.asbjborg.climp.entity.ClimpTimerWheel;
+import com.asbjborg.climp.network.ClimpFeedbackOutput;
+import com.asbjborg.climp.scan.TreeClusterCache;
+import com.asbjborg.climp.speech.ClimpSpeechCoordinator;
 import com.mojang.brigadier.arguments.BoolArgumentType;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.server.ServerStartedEvent;
 
 public final class ClimpCommandEvents {
     private static final int TREE_LIMIT_MIN = 1;
-    private static final int TREE_LIMIT_MAX = 2048;
+    private static final int TREE_SCAN_LIMIT_MAX = 8192;
+    private static final int TREE_BREAK_LIMIT_MAX = 2048;
 
     private ClimpCommandEvents() {
     }
@@ -23,16 +37,21 @@ public final class ClimpCommandEvents {
     public static void onRegisterCommands(RegisterCommandsEvent event) {
         event.getDispatcher().register(
                 Commands.literal("climp")
+                        .then(Commands.literal("stats")
+                                .requires(source -> source.hasPermission(2))
+                                .executes(context -> showStats(context.getSource())))
+                        .then(Commands.literal("list")
+                                .executes(context -> listOwnedClimps(context.getSource())))
                         .then(Commands.literal("config")
                                 .then(Commands.literal("show")
                                         .executes(context -> showConfig(context.getSource())))
                                 .then(Commands.literal("set")
                                         .requires(source -> source.hasPermission(2))
                                         .then(Commands.literal("commandTreeScanLimit")
-                                                .then(Commands.argument("value", IntegerArgumentType.integer(TREE_LIMIT_MIN, TREE_LIMIT_MAX))
+                                                .then(Commands.argument("value", IntegerArgumentType.integer(TREE_LIMIT_MIN, TREE_SCAN_LIMIT_MAX))
                                                         .executes(ClimpCommandEvents::setTreeScanLimit)))
                                         .then(Commands.literal("commandTreeBreakLimit")
-                                                .then(Commands.argument("value", IntegerArgumentType.integer(TREE_LIMIT_MIN, TREE_LIMIT_MAX))
+                                                .then(Commands.argument("value", IntegerArgumentType.integer(TREE_LIMIT_MIN, TREE_BREAK_LIMIT_MAX))
                                                         .executes(ClimpCommandEvents::setTreeBreakLimit)))
                                         .then(Commands.literal("commandTreeScanDebugMessages")
                                                 .then(Commands.argument("value", BoolArgumentType.bool())
@@ -58,6 +77,36 @@ public final class ClimpCommandEvents {
         return 1;
     }
 
+    private static int showStats(CommandSourceStack source) {
+        source.sendSuccess(() -> Component.literal(TreeClusterCache.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpFeedbackOutput.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpTimerWheel.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpLevelSystem.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpTargetIndex.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpClaimRegistry.describeStats()), false);
+        source.sendSuccess(() -> Component.literal(ClimpSpeechCoordinator.describeStats()), false);
+        return 1;
+    }
+
+    private static int listOwnedClimps(CommandSourceStack source) throws CommandSyntaxException {
+        ServerPlayer player = source.getPlayerOrException();
+        StringBuilder message = new StringBuilder();
+        int count = 0;
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            for (ClimpEntity climp : ClimpRegistry.forLevel(level).ownedBy(player.getUUID())) {
+                BlockPos pos = climp.blockPosition();
+                message.append("\n- ").append(level.dimension().location())
+                        .append(" ").append(pos.getX()).append(", ").append(pos.getY()).append(", ").append(pos.getZ())
+                        .append(climp.hasCommandTask() ? " (busy)" : " (idle)");
+                count++;
+            }
+        }
+
+        String summary = "Climp list: " + count + " loaded Climp" + (count == 1 ? "" : "s") + message;
+        source.sendSuccess(() -> Component.literal(summary), false);
+        return count;
+    }
+
     private static int setTreeScanLimit(CommandContext<CommandSourceStack> context) {
         int oldValue = ClimpConfig.COMMAND_TREE_SCAN_LIMIT.getAsInt();
         int newValue = IntegerArgumentType.getInteger(context, "value");
@@ -0,0 +1,148 @@
+package com.asbjborg.climp.event;
+
+import com.asbjborg.climp.entity.ClimpClaimRegistry;
+import com.asbjborg.climp.entity.ClimpEntity;
+import com.asbjborg.climp.entity.ClimpLevelSystem;
+import com.asbjborg.climp.entity.ClimpRegistry;
+import com.asbjborg.climp.entity.ClimpTargetIndex;
+import com.asbjborg.climp.entity.ClimpTimerWheel;
+import com.asbjborg.climp.network.ClimpFeedbackOutput;
+import com.asbjborg.climp.scan.AsyncTreeScanner;
+import com.asbjborg.climp.scan.TreeClusterCache;
+import com.asbjborg.climp.speech.ClimpSpeechCoordinator;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.event.entity.EntityEvent;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.level.BlockEvent;
+import net.neoforged.neoforge.event.level.ExplosionEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+public final class ClimpTaskEvents {
+    private ClimpTaskEvents() {
+    }
+
+    public static void onServerTick(ServerTickEvent.Post event) {
+        AsyncTreeScanner.tick(event.getServer());
+        ClimpFeedbackOutput.flush(event.getServer());
+    }
+
+    public static void onLevelTickPre(LevelTickEvent.Pre event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            ClimpLevelSystem.tick(level);
+        }
+    }
+
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            ClimpTimerWheel.tick(level);
+        }
+    }
+
+    /**
+     * Wakes the player's dormant Climps in every level and lets them resolve the new player entity.
+     */
+    public static void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ClimpRegistry.forEachOwned(player.server, player.getUUID(), climp -> {
+                climp.invalidateOwnerHandle(false);
+                climp.wakeUp();
+            });
+        }
+    }
+
+    public static void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+        AsyncTreeScanner.cancel(event.getEntity().getUUID());
+        ClimpFeedbackOutput.forgetPlayer(event.getEntity().getUUID());
+        ClimpSpeechCoordinator.forgetPlayer(event.getEntity().getUUID());
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ClimpRegistry.forEachOwned(player.server, player.getUUID(), climp -> climp.invalidateOwnerHandle(true));
+        }
+    }
+
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ClimpRegistry.forEachOwned(player.server, player.getUUID(), climp -> climp.invalidateOwnerHandle(false));
+        }
+    }
+
+    public static void onPlayerChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ClimpRegistry.forEachOwned(player.server, player.getUUID(), climp -> {
+                climp.invalidateOwnerHandle(false);
+                if (climp.level().dimension() == event.getFrom()) {
+                    climp.onOwnerLeftLevel();
+                }
+            });
+        }
+    }
+
+    public static void onServerStopping(ServerStoppingEvent event) {
+        AsyncTreeScanner.cancelAll();
+        ClimpFeedbackOutput.clearAll();
+        ClimpTimerWheel.clearAll();
+        ClimpLevelSystem.clearAll();
+        ClimpTargetIndex.clearAll();
+        ClimpClaimRegistry.clearAll();
+        ClimpSpeechCoordinator.clearAll();
+        TreeClusterCache.clearAll();
+        ClimpRegistry.clearAll();
+    }
+
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof ClimpEntity climp && event.getLevel() instanceof ServerLevel level) {
+            ClimpRegistry.onJoin(level, climp);
+            climp.onJoinedLevel();
+        }
+    }
+
+    public static void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof ClimpEntity climp && event.getLevel() instanceof ServerLevel level) {
+            ClimpRegistry.onLeave(level, climp);
+            climp.onLeftLevel();
+        }
+    }
+
+    public static void onEntityEnteringSection(EntityEvent.EnteringSection event) {
+        if (event.didChunkChange()
+                && event.getEntity() instanceof ClimpEntity climp
+                && climp.level() instanceof ServerLevel level) {
+            ClimpRegistry.onSectionChanged(level, climp, event.getNewPos());
+        }
+    }
+
+    public static void onBlockBreak(BlockEvent.BreakEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            TreeClusterCache.onBlockChanged(level, event.getPos());
+        }
+    }
+
+    public static void onBlockPlace(BlockEvent.EntityPlaceEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            TreeClusterCache.onBlockChanged(level, event.getPos());
+        }
+    }
+
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        if (event.getLevel() instanceof ServerLevel level) {
+            TreeClusterCache.onBlockChanged(level, event.getPos());
+            ClimpTargetIndex.onBlockChanged(level, event.getPos());
+        }
+    }
+
+    public static void onExplosionDetonate(ExplosionEvent.Detonate event) {
+        if (!(event.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+        for (BlockPos pos : event.getAffectedBlocks()) {
+            TreeClusterCache.onBlockChanged(level, pos);
+            ClimpTargetIndex.onBlockRemoved(level, pos);
+        }
+    }
+}
@@ -7,8 +7,10 @@ import java.util.UUID;
 import java.util.function.Supplier;
 
 import com.asbjborg.climp.entity.ClimpEntity;
+import com.asbjborg.climp.entity.ClimpRegistry;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
@@ -87,9 +89,9 @@ public final class ClimpSpawnEggItem extends DeferredSpawnEggItem {
     }
 
     private static List<ClimpEntity> getNearbyClimps(Level level, BlockPos origin) {
-        return level.getEntitiesOfClass(
-                ClimpEntity.class,
-                new AABB(origin).inflate(OWNER_ASSIGN_RADIUS),
-                ClimpEntity::isAlive);
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return List.of();
+        }
+        return ClimpRegistry.forLevel(serverLevel).within(new AABB(origin).inflate(OWNER_ASSIGN_RADIUS));
     }
 }
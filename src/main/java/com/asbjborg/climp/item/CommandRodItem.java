@@ -1,15 +1,23 @@
 package com.asbjborg.climp.item;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Deque;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
 
 import com.asbjborg.climp.ClimpConfig;
+import com.asbjborg.climp.entity.ClimpClaimRegistry;
 import com.asbjborg.climp.entity.ClimpEntity;
+import com.asbjborg.climp.entity.ClimpRegistry;
+import com.asbjborg.climp.entity.SharedFellingTask;
+import com.asbjborg.climp.scan.AsyncTreeScanner;
+import com.asbjborg.climp.scan.ClusterAnchorResolution;
+import com.asbjborg.climp.scan.TreeClusterCache;
+import com.asbjborg.climp.scan.TreeClusterScanner;
+import com.asbjborg.climp.scan.TreeRoutePlanner;
+import com.asbjborg.climp.scan.TreeScanMode;
 
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
@@ -23,6 +31,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.context.UseOnContext;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.capabilities.Capabilities;
 
 public final class CommandRodItem extends Item {
     private static final double SEARCH_RADIUS = 24.0D;
@@ -37,15 +46,33 @@ public final class CommandRodItem extends Item {
             return InteractionResultHolder.pass(player.getItemInHand(usedHand));
         }
 
-        handleEmergencyRecall(level, serverPlayer);
+        handleEmergencyRecall(serverPlayer);
         return InteractionResultHolder.success(player.getItemInHand(usedHand));
     }
 
+    /**
+     * Plain use on a storage block binds the deposit target. It runs before the block's own interaction,
+     * so the container does not open, and it leaves shift-use free for emergency recall.
+     */
+    @Override
+    public InteractionResult onItemUseFirst(ItemStack stack, UseOnContext context) {
+        Player player = context.getPlayer();
+        if (player == null || player.isShiftKeyDown()
+                || context.getLevel().getCapability(Capabilities.ItemHandler.BLOCK, context.getClickedPos(), null) == null) {
+            return InteractionResult.PASS;
+        }
+
+        if (player instanceof ServerPlayer serverPlayer) {
+            toggleDepositBinding(serverPlayer, context.getClickedPos());
+        }
+        return InteractionResult.SUCCESS;
+    }
+
     @Override
     public InteractionResult useOn(UseOnContext context) {
         Level level = context.getLevel();
         if (context.getPlayer() instanceof ServerPlayer player && player.isShiftKeyDown()) {
-            handleEmergencyRecall(level, player);
+            handleEmergencyRecall(player);
             return InteractionResult.SUCCESS;
         }
 
@@ -60,70 +87,186 @@ public final class CommandRodItem extends Item {
 
         int scanLimit = getConfiguredScanLimit();
         int breakLimit = getConfiguredBreakLimit();
-        ClusterAnchorResolution anchorResolution = resolveClusterAnchor(level, clickedPos, scanLimit, breakLimit);
-        maybeSendScanDebug(player, anchorResolution, scanLimit, breakLimit);
-        if (anchorResolution.state == ClusterAnchorResolution.State.TOO_LARGE) {
-            player.sendSystemMessage(Component.literal("Climp: That tree is too complex for safe delegation right now."));
+        int scanFlags = TreeClusterCache.scanFlags();
+        TreeClusterCache clusterCache = TreeClusterCache.forLevel(player.serverLevel());
+        ClusterAnchorResolution cachedResolution = clusterCache.get(player.serverLevel(), clickedPos, scanLimit, breakLimit, scanFlags);
+        if (cachedResolution != null) {
+            dispatchTreeTask(player, cachedResolution, scanLimit, breakLimit);
             return InteractionResult.SUCCESS;
         }
-        if (anchorResolution.state == ClusterAnchorResolution.State.NONE || anchorResolution.orderedTargets.isEmpty()) {
-            player.sendSystemMessage(Component.literal("Climp: I could not resolve a valid task target from that tree."));
+
+        if (AsyncTreeScanner.isScanning(player)) {
+            player.sendSystemMessage(Component.literal("Climp: Still scanning the last tree. Patience!"));
             return InteractionResult.SUCCESS;
         }
 
-        List<ClimpEntity> nearbyClimps = level.getEntitiesOfClass(
-                ClimpEntity.class,
-                player.getBoundingBox().inflate(SEARCH_RADIUS),
-                ClimpEntity::isAlive);
+        BiConsumer<ServerPlayer, ClusterAnchorResolution> onResolved = (scanningPlayer, resolution) -> {
+            clusterCache.put(scanningPlayer.serverLevel(), resolution, scanLimit, breakLimit, scanFlags);
+            dispatchTreeTask(scanningPlayer, resolution, scanLimit, breakLimit);
+        };
+        TreeScanMode scanMode = ClimpConfig.COMMAND_TREE_SCAN_MODE.get();
+        if (scanMode != TreeScanMode.SYNC) {
+            if (scanMode == TreeScanMode.BUDGETED) {
+                AsyncTreeScanner.submitBudgeted(player, clickedPos, scanLimit, breakLimit, onResolved);
+            } else {
+                AsyncTreeScanner.submit(player, clickedPos, scanLimit, breakLimit, onResolved);
+            }
+            player.sendSystemMessage(Component.literal("Climp: Scanning that tree..."));
+            return InteractionResult.SUCCESS;
+        }
 
+        ClusterAnchorResolution anchorResolution = TreeClusterScanner.resolve(level, clickedPos, scanLimit, breakLimit);
+        if (ClimpConfig.COMMAND_TREE_ROUTE_PLANNING.getAsBoolean()) {
+            if (anchorResolution.orderedTargets().size() >= TreeRoutePlanner.ASYNC_PLAN_THRESHOLD) {
+                AsyncTreeScanner.submitRoutePlan(player, clickedPos, anchorResolution, onResolved);
+                return InteractionResult.SUCCESS;
+            }
+            anchorResolution = TreeRoutePlanner.plan(anchorResolution);
+        }
+        onResolved.accept(player, anchorResolution);
+        return InteractionResult.SUCCESS;
+    }
+
+    private static void dispatchTreeTask(
+            ServerPlayer player,
+            ClusterAnchorResolution anchorResolution,
+            int scanLimit,
+            int breakLimit) {
+        maybeSendScanDebug(player, anchorResolution, scanLimit, breakLimit);
+        if (anchorResolution.state() == ClusterAnchorResolution.State.TOO_LARGE) {
+            player.sendSystemMessage(Component.literal("Climp: That tree is too complex for safe delegation right now."));
+            return;
+        }
+        if (anchorResolution.state() == ClusterAnchorResolution.State.NONE || anchorResolution.orderedTargets().isEmpty()) {
+            player.sendSystemMessage(Component.literal("Climp: I could not resolve a valid task target from that tree."));
+            return;
+        }
+
+        List<ClimpEntity> nearbyClimps = getOwnedClimpsInRange(player);
         if (nearbyClimps.isEmpty()) {
             player.sendSystemMessage(Component.literal("Climp: No Climp in range."));
-            return InteractionResult.SUCCESS;
+            return;
+        }
+
+        List<BlockPos> orderedTargets = unclaimedTargets(player, anchorResolution.orderedTargets());
+        if (orderedTargets == null) {
+            return;
         }
 
         ClimpEntity nearestReadyClimp = nearbyClimps.stream()
-                .filter(climp -> climp.canAcceptCommandTask() && climp.isOwnedBy(player))
+                .filter(ClimpEntity::canAcceptCommandTask)
                 .min(Comparator.comparingDouble(climp -> climp.distanceToSqr(player)))
                 .orElse(null);
 
         if (nearestReadyClimp == null) {
+            ClimpEntity nearestQueueingClimp = nearbyClimps.stream()
+                    .filter(ClimpEntity::canQueueCommandJob)
+                    .min(Comparator.comparingDouble(climp -> climp.distanceToSqr(player)))
+                    .orElse(null);
+            if (nearestQueueingClimp != null && nearestQueueingClimp.enqueueLogJob(player, orderedTargets)) {
+                player.sendSystemMessage(Component.literal(
+                        "Climp: Added to my list. Trees waiting: " + nearestQueueingClimp.pendingJobCount() + "."));
+                return;
+            }
+
             boolean hasBusyClimp = nearbyClimps.stream().anyMatch(ClimpEntity::hasCommandTask);
             if (hasBusyClimp) {
                 player.sendSystemMessage(Component.literal("Climp: I am busy with a task right now."));
-                return InteractionResult.SUCCESS;
+                return;
             }
 
             boolean hasCoolingClimp = nearbyClimps.stream().anyMatch(ClimpEntity::isOnCommandCooldown);
             if (hasCoolingClimp) {
                 player.sendSystemMessage(Component.literal("Climp: Brief cooldown. Dramatic pause in progress."));
-                return InteractionResult.SUCCESS;
+                return;
             }
 
             player.sendSystemMessage(Component.literal("Climp: No available Climp in range."));
-            return InteractionResult.SUCCESS;
+            return;
+        }
+
+        if (orderedTargets.size() > 1 && ClimpConfig.COMMAND_COOPERATIVE_FELLING.getAsBoolean()) {
+            List<ClimpEntity> helpers = nearbyClimps.stream()
+                    .filter(ClimpEntity::canAcceptCommandTask)
+                    .filter(climp -> climp.isWithinTaskRange(orderedTargets.get(0)))
+                    .sorted(Comparator.comparingDouble(climp -> climp.distanceToSqr(player)))
+                    .toList();
+            // A lone Climp gains nothing from the shared queue, so it takes the tree as a plain task.
+            if (helpers.size() > 1) {
+                assignSharedTreeTask(player, helpers, orderedTargets);
+                return;
+            }
         }
 
-        if (!nearestReadyClimp.assignLogTask(player, anchorResolution.orderedTargets)) {
+        if (!nearestReadyClimp.assignLogTask(player, orderedTargets)) {
             player.sendSystemMessage(Component.literal("Climp: I cannot reach that task target."));
-            return InteractionResult.SUCCESS;
         }
+    }
 
-        return InteractionResult.SUCCESS;
+    /**
+     * The tree's logs no Climp task has claimed yet, in order. If there are none, tells the player who
+     * is on the tree and returns null.
+     */
+    @Nullable
+    private static List<BlockPos> unclaimedTargets(ServerPlayer player, List<BlockPos> orderedTargets) {
+        ClimpClaimRegistry claims = ClimpClaimRegistry.forLevel(player.serverLevel());
+        long gameTime = player.serverLevel().getGameTime();
+        List<BlockPos> unclaimed = new ArrayList<>(orderedTargets.size());
+        ClimpClaimRegistry.Claim holder = null;
+        for (BlockPos target : orderedTargets) {
+            ClimpClaimRegistry.Claim claim = claims.holderOf(target, gameTime);
+            if (claim == null) {
+                unclaimed.add(target);
+            } else {
+                holder = claim;
+            }
+        }
+        if (!unclaimed.isEmpty() || holder == null) {
+            return unclaimed;
+        }
+
+        if (holder.ownerId().equals(player.getUUID())) {
+            player.sendSystemMessage(Component.literal("Climp: One of us is already on that tree."));
+        } else {
+            player.sendSystemMessage(Component.literal("Climp: Another Climp is already on that tree."));
+        }
+        return null;
     }
 
-    private static void handleEmergencyRecall(Level level, ServerPlayer player) {
-        List<ClimpEntity> nearbyClimps = level.getEntitiesOfClass(
-                ClimpEntity.class,
-                player.getBoundingBox().inflate(SEARCH_RADIUS),
-                ClimpEntity::isAlive);
+    /**
+     * Hands the tree to the given ready Climps, nearest first. The nearest one that joins leads and does
+     * the talking.
+     */
+    private static void assignSharedTreeTask(ServerPlayer player, List<ClimpEntity> readyClimps, List<BlockPos> orderedTargets) {
+        SharedFellingTask task = SharedFellingTask.claim(player.serverLevel(), player.getUUID(), orderedTargets);
+        if (task == null) {
+            player.sendSystemMessage(Component.literal("Climp: Another Climp is already on that tree."));
+            return;
+        }
+        int workers = 0;
+        for (ClimpEntity climp : readyClimps) {
+            if (climp.joinSharedLogTask(player, task, workers == 0)) {
+                workers++;
+            }
+        }
 
+        if (workers == 0) {
+            task.abandon();
+            player.sendSystemMessage(Component.literal("Climp: I cannot reach that task target."));
+        } else if (workers > 1) {
+            player.sendSystemMessage(Component.literal("Climp: " + workers + " of us on it."));
+        }
+    }
+
+    private static void handleEmergencyRecall(ServerPlayer player) {
+        List<ClimpEntity> nearbyClimps = getOwnedClimpsInRange(player);
         if (nearbyClimps.isEmpty()) {
             player.sendSystemMessage(Component.literal("Climp: No Climp in range."));
             return;
         }
 
         ClimpEntity nearestBusyClimp = nearbyClimps.stream()
-                .filter(climp -> climp.hasCommandTask() && climp.isOwnedBy(player))
+                .filter(ClimpEntity::hasCommandTask)
                 .min(Comparator.comparingDouble(climp -> climp.distanceToSqr(player)))
                 .orElse(null);
 
@@ -140,6 +283,33 @@ public final class CommandRodItem extends Item {
         player.sendSystemMessage(Component.literal("Climp: Recall failed. Try again."));
     }
 
+    /**
+     * Binds the nearest owned Climp to the storage block, or unbinds it if it already is.
+     */
+    private static void toggleDepositBinding(ServerPlayer player, BlockPos storagePos) {
+        ClimpEntity nearestClimp = getOwnedClimpsInRange(player).stream()
+                .min(Comparator.comparingDouble(climp -> climp.distanceToSqr(player)))
+                .orElse(null);
+        if (nearestClimp == null) {
+            player.sendSystemMessage(Component.literal("Climp: No Climp in range."));
+            return;
+        }
+
+        if (nearestClimp.isDepositBoundTo(storagePos)) {
+            nearestClimp.setDepositPos(null);
+            player.sendSystemMessage(Component.literal("Climp: Fine, I will bring the haul to you again."));
+            return;
+        }
+
+        nearestClimp.setDepositPos(storagePos);
+        player.sendSystemMessage(Component.literal("Climp: Noted. Haul goes in there from now on."));
+    }
+
+    private static List<ClimpEntity> getOwnedClimpsInRange(ServerPlayer player) {
+        return ClimpRegistry.forLevel(player.serverLevel())
+                .ownedWithin(player.getUUID(), player.getBoundingBox().inflate(SEARCH_RADIUS));
+    }
+
     private static int getConfiguredScanLimit() {
         return Math.max(1, ClimpConfig.COMMAND_TREE_SCAN_LIMIT.getAsInt());
     }
@@ -157,104 +327,9 @@ public final class CommandRodItem extends Item {
             return;
         }
 
-        String message = "Climp Debug: scanned " + resolution.scannedCount + " logs, queued "
-                + resolution.orderedTargets.size() + " (scanLimit=" + scanLimit + ", breakLimit=" + breakLimit + ").";
+        String message = "Climp Debug: scanned " + resolution.scannedCount() + " logs, queued "
+                + resolution.orderedTargets().size() + ", skipped " + resolution.skippedSectionCount()
+                + " log-free sections (scanLimit=" + scanLimit + ", breakLimit=" + breakLimit + ").";
         player.sendSystemMessage(Component.literal(message));
     }
-
-    private static ClusterAnchorResolution resolveClusterAnchor(Level level, BlockPos startPos, int scanLimit, int breakLimit) {
-        BlockPos start = startPos.immutable();
-        if (!level.getBlockState(start).is(BlockTags.LOGS)) {
-            return ClusterAnchorResolution.none();
-        }
-
-        Set<BlockPos> visitedLogs = new HashSet<>();
-        Deque<BlockPos> queue = new ArrayDeque<>();
-        queue.add(start);
-        visitedLogs.add(start);
-
-        BlockPos anchor = start;
-        while (!queue.isEmpty()) {
-            BlockPos current = queue.removeFirst();
-            if (visitedLogs.size() > scanLimit) {
-                return ClusterAnchorResolution.tooLarge(visitedLogs.size());
-            }
-
-            if (isBetterAnchor(current, anchor, start)) {
-                anchor = current;
-            }
-
-            for (int dx = -1; dx <= 1; dx++) {
-                for (int dy = -1; dy <= 1; dy++) {
-                    for (int dz = -1; dz <= 1; dz++) {
-                        if (dx == 0 && dy == 0 && dz == 0) {
-                            continue;
-                        }
-
-                        BlockPos next = current.offset(dx, dy, dz).immutable();
-                        if (visitedLogs.contains(next) || !level.getBlockState(next).is(BlockTags.LOGS)) {
-                            continue;
-                        }
-
-                        visitedLogs.add(next);
-                        queue.addLast(next);
-                    }
-                }
-            }
-        }
-
-        BlockPos anchorPos = anchor.immutable();
-        List<BlockPos> orderedTargets = new ArrayList<>(visitedLogs.size());
-        orderedTargets.add(anchorPos);
-        visitedLogs.stream()
-                .filter(pos -> !pos.equals(anchorPos))
-                .sorted(Comparator
-                        .<BlockPos>comparingInt(pos -> pos.getY())
-                        .thenComparingDouble(pos -> pos.distSqr(anchorPos)))
-                .map(BlockPos::immutable)
-                .forEachOrdered(orderedTargets::add);
-
-        if (orderedTargets.size() > breakLimit) {
-            orderedTargets = new ArrayList<>(orderedTargets.subList(0, breakLimit));
-        }
-
-        return ClusterAnchorResolution.resolved(orderedTargets, visitedLogs.size());
-    }
-
-    private static boolean isBetterAnchor(BlockPos candidate, BlockPos currentAnchor, BlockPos clickedStart) {
-        if (candidate.getY() != currentAnchor.getY()) {
-            return candidate.getY() < currentAnchor.getY();
-        }
-        return candidate.distSqr(clickedStart) < currentAnchor.distSqr(clickedStart);
-    }
-
-    private static final class ClusterAnchorResolution {
-        private enum State {
-            RESOLVED,
-            TOO_LARGE,
-            NONE
-        }
-
-        private final State state;
-        private final List<BlockPos> orderedTargets;
-        private final int scannedCount;
-
-        private ClusterAnchorResolution(State state, List<BlockPos> orderedTargets, int scannedCount) {
-            this.state = state;
-            this.orderedTargets = orderedTargets == null ? List.of() : List.copyOf(orderedTargets);
-            this.scannedCount = Math.max(0, scannedCount);
-        }
-
-        private static ClusterAnchorResolution resolved(List<BlockPos> orderedTargets, int scannedCount) {
-            return new ClusterAnchorResolution(State.RESOLVED, orderedTargets, scannedCount);
-        }
-
-        private static ClusterAnchorResolution tooLarge(int scannedCount) {
-            return new ClusterAnchorResolution(State.TOO_LARGE, List.of(), scannedCount);
-        }
-
-        private static ClusterAnchorResolution none() {
-            return new ClusterAnchorResolution(State.NONE, List.of(), 0);
-        }
-    }
 }
@@ -0,0 +1,188 @@
+package com.asbjborg.climp.network;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.asbjborg.climp.ClimpConfig;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.Vec3;
+
+/**
+ * Everything Climps send to clients goes through here. Speech lines are queued per player and flushed
+ * once per server tick: all lines for a player become one chat message and at most one sound, and a
+ * per-player token budget drops low-priority lines first. Task results are always delivered, and idle
+ * chatter is dropped in a tick that has anything more important for the player. Broadcast crack stages
+ * and sounds are counted once per player in range. Server thread only.
+ */
+public final class ClimpFeedbackOutput {
+    public enum Priority {
+        TASK_RESULT,
+        REACTION,
+        CHATTER
+    }
+
+    private static final Map<UUID, PlayerOutbox> OUTBOX_BY_PLAYER = new HashMap<>();
+    private static final double BUDGET_BURST_SECONDS = 2.0D;
+    // Range ServerLevel.destroyBlockProgress sends crack stages over.
+    private static final double BREAK_PROGRESS_RANGE = 32.0D;
+    private static final float SPEECH_SOUND_VOLUME = 1.0f;
+
+    private static long packetsSent;
+    private static long climpTicks;
+    private static long linesCoalesced;
+    private static long linesDropped;
+
+    private ClimpFeedbackOutput() {
+    }
+
+    /**
+     * Queues a speech line for the player, delivered with the next flush. The sound plays at the
+     * speaking entity.
+     */
+    public static void queueLine(ServerPlayer player, Entity speaker, Priority priority, Component text, Holder<SoundEvent> sound) {
+        OUTBOX_BY_PLAYER.computeIfAbsent(player.getUUID(), key -> new PlayerOutbox(player.server.getTickCount()))
+                .pending.add(new PendingLine(priority, text, speaker, sound));
+    }
+
+    /**
+     * Broadcasts a block-crack stage. Callers only call this when the stage actually changed.
+     */
+    public static void sendBreakProgress(ServerLevel level, Entity breaker, BlockPos pos, int stage) {
+        level.destroyBlockProgress(breaker.getId(), pos, stage);
+        packetsSent += countPlayersWithin(level, pos.getX(), pos.getY(), pos.getZ(), BREAK_PROGRESS_RANGE);
+    }
+
+    public static void countClimpTick() {
+        climpTicks++;
+    }
+
+    public static void flush(MinecraftServer server) {
+        if (OUTBOX_BY_PLAYER.isEmpty()) {
+            return;
+        }
+        int tick = server.getTickCount();
+        double refillPerTick = ClimpConfig.CLIMP_FEEDBACK_BUDGET_PER_SECOND.getAsInt() / 20.0D;
+        double capacity = ClimpConfig.CLIMP_FEEDBACK_BUDGET_PER_SECOND.getAsInt() * BUDGET_BURST_SECONDS;
+
+        Iterator<Map.Entry<UUID, PlayerOutbox>> entries = OUTBOX_BY_PLAYER.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<UUID, PlayerOutbox> entry = entries.next();
+            PlayerOutbox outbox = entry.getValue();
+            outbox.tokens = Math.min(capacity, outbox.tokens + (tick - outbox.lastRefillTick) * refillPerTick);
+            outbox.lastRefillTick = tick;
+            if (outbox.pending.isEmpty()) {
+                // Forget players whose budget is back to full; they cost nothing to re-create.
+                if (outbox.tokens >= capacity) {
+                    entries.remove();
+                }
+                continue;
+            }
+
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player == null) {
+                entries.remove();
+                continue;
+            }
+            deliver(player, outbox);
+        }
+    }
+
+    public static void forgetPlayer(UUID playerId) {
+        OUTBOX_BY_PLAYER.remove(playerId);
+    }
+
+    public static void clearAll() {
+        OUTBOX_BY_PLAYER.clear();
+    }
+
+    public static String describeStats() {
+        double perClimpTick = climpTicks == 0 ? 0.0D : (double) packetsSent / climpTicks;
+        return "Climp feedback: packets=" + packetsSent + ", climpTicks=" + climpTicks
+                + ", packetsPerClimpTick=" + String.format("%.4f", perClimpTick)
+                + ", coalescedLines=" + linesCoalesced + ", droppedLines=" + linesDropped;
+    }
+
+    private static void deliver(ServerPlayer player, PlayerOutbox outbox) {
+        List<PendingLine> pending = outbox.pending;
+        pending.sort(Comparator.comparing(PendingLine::priority));
+
+        boolean chatterOutranked = pending.get(0).priority() != Priority.CHATTER;
+        MutableComponent message = null;
+        PendingLine soundLine = null;
+        for (PendingLine line : pending) {
+            boolean mustSend = line.priority() == Priority.TASK_RESULT;
+            if (!mustSend && (outbox.tokens < 1.0D || chatterOutranked && line.priority() == Priority.CHATTER)) {
+                linesDropped++;
+                continue;
+            }
+            outbox.tokens = Math.max(0.0D, outbox.tokens - 1.0D);
+            if (message == null) {
+                message = Component.empty().append(line.text());
+                soundLine = line;
+            } else {
+                message.append("\n").append(line.text());
+                linesCoalesced++;
+            }
+        }
+        pending.clear();
+
+        if (message == null) {
+            return;
+        }
+        player.sendSystemMessage(message);
+        packetsSent++;
+        Entity speaker = soundLine.speaker();
+        if (speaker.isAlive()) {
+            BlockPos soundPos = speaker.blockPosition();
+            SoundEvent sound = soundLine.sound().value();
+            speaker.level().playSound(null, soundPos, sound, SoundSource.NEUTRAL, SPEECH_SOUND_VOLUME, 1.0f);
+            if (speaker.level() instanceof ServerLevel level) {
+                Vec3 center = soundPos.getCenter();
+                packetsSent += countPlayersWithin(level, center.x, center.y, center.z, sound.getRange(SPEECH_SOUND_VOLUME));
+            }
+        }
+    }
+
+    /**
+     * Players a level-wide broadcast from this point reaches, so the packet count matches what the
+     * server actually sends rather than one per broadcast.
+     */
+    private static int countPlayersWithin(ServerLevel level, double x, double y, double z, double range) {
+        double rangeSqr = range * range;
+        int recipients = 0;
+        for (ServerPlayer player : level.players()) {
+            if (player.distanceToSqr(x, y, z) < rangeSqr) {
+                recipients++;
+            }
+        }
+        return recipients;
+    }
+
+    private record PendingLine(Priority priority, Component text, Entity speaker, Holder<SoundEvent> sound) {
+    }
+
+    private static final class PlayerOutbox {
+        private final List<PendingLine> pending = new ArrayList<>();
+        private double tokens = Double.MAX_VALUE;
+        private int lastRefillTick;
+
+        private PlayerOutbox(int tick) {
+            this.lastRefillTick = tick;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.asbjborg.climp.scan;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nullable;
+
+import com.asbjborg.climp.ClimpConfig;
+import com.asbjborg.climp.ClimpMod;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.Level;
+
+/**
+ * Runs command-rod tree scans outside the rod click. In {@link TreeScanMode#ASYNC} the server thread
+ * snapshots the chunk sections around the clicked log and a background worker runs the flood fill; in
+ * {@link TreeScanMode#BUDGETED} the fill runs on the server thread in slices capped by a per-tick time
+ * budget shared by all pending scans, and the branch filtering, target ordering and route planning that
+ * follow it run on a worker. Either way the result is handed back on a later server tick after
+ * checking it still matches the world. Cancelling a scan stops its flood fill at the next BFS layer,
+ * including one running on a worker.
+ */
+public final class AsyncTreeScanner {
+    private static final int SNAPSHOT_HORIZONTAL_RADIUS_SECTIONS = 2;
+    private static final int SNAPSHOT_SECTIONS_BELOW = 1;
+    private static final int SNAPSHOT_SECTIONS_ABOVE = 3;
+    private static final int MAX_SCAN_AGE_TICKS = 20 * 5;
+
+    private static final Map<UUID, PendingScan> PENDING_SCANS = new LinkedHashMap<>();
+
+    private AsyncTreeScanner() {
+    }
+
+    public static boolean isScanning(ServerPlayer player) {
+        return PENDING_SCANS.containsKey(player.getUUID());
+    }
+
+    /**
+     * Starts a scan for the player. {@code onResolved} runs on the server thread once the result is in
+     * and still matches the world; it is never called if the scan is cancelled or goes stale.
+     */
+    public static void submit(
+            ServerPlayer player,
+            BlockPos clickedPos,
+            int scanLimit,
+            int breakLimit,
+            BiConsumer<ServerPlayer, ClusterAnchorResolution> onResolved) {
+        ServerLevel level = player.serverLevel();
+        BlockPos startPos = clickedPos.immutable();
+        SectionSnapshotLogLookup snapshot = SectionSnapshotLogLookup.capture(
+                level,
+                startPos,
+                SNAPSHOT_HORIZONTAL_RADIUS_SECTIONS,
+                SNAPSHOT_SECTIONS_BELOW,
+                SNAPSHOT_SECTIONS_ABOVE);
+        boolean planRoute = ClimpConfig.COMMAND_TREE_ROUTE_PLANNING.getAsBoolean();
+        TreeScanJob job = new TreeScanJob(snapshot, startPos, scanLimit, breakLimit, TreeClusterScanner.segmentTrunks());
+        CompletableFuture<ScanOutcome> future = CompletableFuture.supplyAsync(
+                () -> {
+                    ClusterAnchorResolution resolution = job.runToCompletion();
+                    return new ScanOutcome(
+                            planRoute ? TreeRoutePlanner.plan(resolution) : resolution,
+                            snapshot.boundaryProbes());
+                },
+                Util.backgroundExecutor());
+
+        track(player, new PendingScan(level.dimension(), startPos, level.getGameTime(), future, job, false, false, onResolved));
+    }
+
+    /**
+     * Like {@link #submit}, but the fill is stepped on the server thread within the tick budget and
+     * may span many ticks. Nothing reads the world until the first step.
+     */
+    public static void submitBudgeted(
+            ServerPlayer player,
+            BlockPos clickedPos,
+            int scanLimit,
+            int breakLimit,
+            BiConsumer<ServerPlayer, ClusterAnchorResolution> onResolved) {
+        ServerLevel level = player.serverLevel();
+        BlockPos startPos = clickedPos.immutable();
+        TreeScanJob job = new TreeScanJob(
+                TreeClusterScanner.liveLookup(level), startPos, scanLimit, breakLimit, TreeClusterScanner.segmentTrunks());
+        boolean planRoute = ClimpConfig.COMMAND_TREE_ROUTE_PLANNING.getAsBoolean();
+        track(player, new PendingScan(
+                level.dimension(), startPos, level.getGameTime(), new CompletableFuture<>(), job, true, planRoute, onResolved));
+    }
+
+    /**
+     * Plans the route for an already resolved cluster on a worker thread and hands it back like a scan.
+     */
+    public static void submitRoutePlan(
+            ServerPlayer player,
+            BlockPos clickedPos,
+            ClusterAnchorResolution resolution,
+            BiConsumer<ServerPlayer, ClusterAnchorResolution> onResolved) {
+        ServerLevel level = player.serverLevel();
+        CompletableFuture<ScanOutcome> future = CompletableFuture.supplyAsync(
+                () -> new ScanOutcome(TreeRoutePlanner.plan(resolution), new LongArrayList()),
+                Util.backgroundExecutor());
+        track(player, new PendingScan(
+                level.dimension(), clickedPos.immutable(), level.getGameTime(), future, null, false, false, onResolved));
+    }
+
+    private static void track(ServerPlayer player, PendingScan pending) {
+        cancel(player.getUUID());
+        PENDING_SCANS.put(player.getUUID(), pending);
+    }
+
+    public static void cancel(UUID playerId) {
+        PendingScan pending = PENDING_SCANS.remove(playerId);
+        if (pending != null) {
+            pending.cancel();
+        }
+    }
+
+    public static void cancelAll() {
+        for (PendingScan pending : PENDING_SCANS.values()) {
+            pending.cancel();
+        }
+        PENDING_SCANS.clear();
+    }
+
+    /**
+     * Hands finished scans back to their callbacks. Call once per server tick.
+     */
+    public static void tick(MinecraftServer server) {
+        if (PENDING_SCANS.isEmpty()) {
+            return;
+        }
+
+        stepBudgetedScans();
+        // Callbacks may start or cancel scans, so they only run once the map is no longer being iterated.
+        List<Map.Entry<UUID, PendingScan>> finished = null;
+        Iterator<Map.Entry<UUID, PendingScan>> iterator = PENDING_SCANS.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, PendingScan> entry = iterator.next();
+            if (!entry.getValue().future().isDone()) {
+                continue;
+            }
+            if (finished == null) {
+                finished = new ArrayList<>();
+            }
+            finished.add(Map.entry(entry.getKey(), entry.getValue()));
+            iterator.remove();
+        }
+        if (finished == null) {
+            return;
+        }
+        for (Map.Entry<UUID, PendingScan> entry : finished) {
+            deliver(server, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void deliver(MinecraftServer server, UUID playerId, PendingScan pending) {
+        ServerPlayer player = server.getPlayerList().getPlayer(playerId);
+        ServerLevel level = server.getLevel(pending.dimension());
+        if (player == null || level == null || player.serverLevel() != level) {
+            return;
+        }
+
+        ScanOutcome outcome;
+        try {
+            outcome = pending.future().join();
+        } catch (CompletionException exception) {
+            ClimpMod.LOGGER.warn("Async command-rod tree scan failed at {}", pending.startPos(), exception.getCause());
+            player.sendSystemMessage(Component.literal("Climp: I could not resolve a valid task target from that tree."));
+            return;
+        }
+
+        if (isStale(level, pending, outcome.resolution())) {
+            player.sendSystemMessage(Component.literal("Climp: That tree changed while I was looking at it. Try again."));
+            return;
+        }
+
+        ClusterAnchorResolution resolution = outcome.resolution();
+        if (resolution.state() == ClusterAnchorResolution.State.RESOLVED
+                && touchesLogOutsideSnapshot(level, outcome.boundaryProbes())) {
+            resolution = ClusterAnchorResolution.tooLarge(resolution.scannedCount(), resolution.skippedSectionCount());
+        }
+        pending.onResolved().accept(player, resolution);
+    }
+
+    /**
+     * Spends at most the configured budget across all budgeted fills, oldest first. Fills the budget does
+     * not reach this tick keep their frontier and continue next tick; finished fills go to a worker and
+     * are not touched here again.
+     */
+    private static void stepBudgetedScans() {
+        long deadline = System.nanoTime() + ClimpConfig.COMMAND_TREE_SCAN_TICK_BUDGET_MICROS.getAsInt() * 1000L;
+        for (PendingScan pending : PENDING_SCANS.values()) {
+            TreeScanJob job = pending.job();
+            if (!pending.budgeted() || job.isFilled()) {
+                continue;
+            }
+            if (System.nanoTime() >= deadline) {
+                return;
+            }
+
+            job.beginSlice();
+            if (job.step(deadline)) {
+                finishBudgetedScan(pending, job);
+            }
+        }
+    }
+
+    private static void finishBudgetedScan(PendingScan pending, TreeScanJob job) {
+        boolean planRoute = pending.planRoute();
+        CompletableFuture.supplyAsync(
+                () -> {
+                    ClusterAnchorResolution resolution = job.finish();
+                    return new ScanOutcome(
+                            planRoute ? TreeRoutePlanner.plan(resolution) : resolution,
+                            new LongArrayList());
+                },
+                Util.backgroundExecutor())
+                .whenComplete((outcome, error) -> {
+                    if (error != null) {
+                        pending.future().completeExceptionally(error);
+                    } else {
+                        pending.future().complete(outcome);
+                    }
+                });
+    }
+
+    private static boolean isStale(ServerLevel level, PendingScan pending, ClusterAnchorResolution resolution) {
+        // Budgeted scans read the live world, so only a snapshot can age out.
+        if (!pending.budgeted() && level.getGameTime() - pending.submittedGameTime() > MAX_SCAN_AGE_TICKS) {
+            return true;
+        }
+        if (!isLoadedLog(level, pending.startPos())) {
+            return true;
+        }
+        return !resolution.orderedTargets().isEmpty() && !isLoadedLog(level, resolution.orderedTargets().get(0));
+    }
+
+    private static boolean isLoadedLog(ServerLevel level, BlockPos pos) {
+        return level.isLoaded(pos) && level.getBlockState(pos).is(BlockTags.LOGS);
+    }
+
+    private static boolean touchesLogOutsideSnapshot(ServerLevel level, LongArrayList boundaryProbes) {
+        BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+        for (int i = 0; i < boundaryProbes.size(); i++) {
+            cursor.set(boundaryProbes.getLong(i));
+            if (level.isLoaded(cursor) && level.getBlockState(cursor).is(BlockTags.LOGS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record ScanOutcome(ClusterAnchorResolution resolution, LongArrayList boundaryProbes) {
+    }
+
+    private record PendingScan(
+            ResourceKey<Level> dimension,
+            BlockPos startPos,
+            long submittedGameTime,
+            CompletableFuture<ScanOutcome> future,
+            @Nullable TreeScanJob job,
+            boolean budgeted,
+            boolean planRoute,
+            BiConsumer<ServerPlayer, ClusterAnchorResolution> onResolved) {
+        // future.cancel does not interrupt a supplyAsync task, so the fill is told to stop as well.
+        void cancel() {
+            this.future.cancel(true);
+            if (this.job != null) {
+                this.job.cancel();
+            }
+        }
+    }
+}
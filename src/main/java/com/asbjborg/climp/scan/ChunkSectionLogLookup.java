@@ -0,0 +1,104 @@
+package com.asbjborg.climp.scan;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+/**
+ * Reads block states straight from {@link LevelChunkSection}s. Each section is resolved once per scan slice;
+ * sections whose palette holds no log state (or whose chunk is not loaded) are skipped wholesale.
+ */
+final class ChunkSectionLogLookup implements LogLookup {
+    private final Level level;
+    // Null values mark skipped sections.
+    private final Long2ObjectOpenHashMap<LevelChunkSection> sections = new Long2ObjectOpenHashMap<>();
+    private long lastSectionKey = Long.MIN_VALUE;
+    @Nullable
+    private LevelChunkSection lastSection;
+    private final LongOpenHashSet skippedSectionKeys = new LongOpenHashSet();
+
+    ChunkSectionLogLookup(Level level) {
+        this.level = level;
+    }
+
+    @Override
+    public boolean isLog(int x, int y, int z) {
+        LevelChunkSection section = this.section(
+                SectionPos.blockToSectionCoord(x),
+                SectionPos.blockToSectionCoord(y),
+                SectionPos.blockToSectionCoord(z));
+        return section != null && LogBlockStates.isLog(section.getBlockState(x & 15, y & 15, z & 15));
+    }
+
+    @Override
+    public boolean isTrunkFooting(int x, int y, int z) {
+        // Ground usually sits in a log-free section, so read it directly rather than through the cache.
+        LevelChunk chunk = this.level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+        if (chunk == null) {
+            return false;
+        }
+        int index = chunk.getSectionIndex(y);
+        if (index < 0 || index >= chunk.getSectionsCount()) {
+            return false;
+        }
+        return LogBlockStates.isTrunkFooting(chunk.getSection(index).getBlockState(x & 15, y & 15, z & 15));
+    }
+
+    @Override
+    public int skippedSectionCount() {
+        return this.skippedSectionKeys.size();
+    }
+
+    @Override
+    public void beginSlice() {
+        this.sections.clear();
+        this.lastSectionKey = Long.MIN_VALUE;
+        this.lastSection = null;
+    }
+
+    @Nullable
+    private LevelChunkSection section(int sectionX, int sectionY, int sectionZ) {
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (key == this.lastSectionKey) {
+            return this.lastSection;
+        }
+
+        LevelChunkSection section;
+        if (this.sections.containsKey(key)) {
+            section = this.sections.get(key);
+        } else {
+            section = this.resolveSection(sectionX, sectionY, sectionZ);
+            if (section == null) {
+                this.skippedSectionKeys.add(key);
+            }
+            this.sections.put(key, section);
+        }
+        this.lastSectionKey = key;
+        this.lastSection = section;
+        return section;
+    }
+
+    @Nullable
+    private LevelChunkSection resolveSection(int sectionX, int sectionY, int sectionZ) {
+        LevelChunk chunk = this.level.getChunkSource().getChunkNow(sectionX, sectionZ);
+        if (chunk == null) {
+            return null;
+        }
+
+        int index = chunk.getSectionIndexFromSectionY(sectionY);
+        if (index < 0 || index >= chunk.getSectionsCount()) {
+            return null;
+        }
+
+        LevelChunkSection section = chunk.getSection(index);
+        if (section.hasOnlyAir() || !section.maybeHas(LogBlockStates::isLog)) {
+            return null;
+        }
+        return section;
+    }
+}
@@ -0,0 +1,86 @@
+package com.asbjborg.climp.scan;
+
+import java.util.List;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * Result of a command-rod tree scan: the ordered log targets (anchor first) or why none were resolved.
+ */
+public final class ClusterAnchorResolution {
+    public enum State {
+        RESOLVED,
+        TOO_LARGE,
+        NONE
+    }
+
+    private final State state;
+    private final List<BlockPos> orderedTargets;
+    private final int scannedCount;
+    private final int skippedSectionCount;
+    private final long[] memberPositions;
+
+    private ClusterAnchorResolution(
+            State state,
+            List<BlockPos> orderedTargets,
+            int scannedCount,
+            int skippedSectionCount,
+            long[] memberPositions) {
+        this.state = state;
+        this.orderedTargets = orderedTargets == null ? List.of() : List.copyOf(orderedTargets);
+        this.scannedCount = Math.max(0, scannedCount);
+        this.skippedSectionCount = Math.max(0, skippedSectionCount);
+        this.memberPositions = memberPositions;
+    }
+
+    public static ClusterAnchorResolution resolved(
+            List<BlockPos> orderedTargets,
+            int scannedCount,
+            int skippedSectionCount,
+            long[] memberPositions) {
+        return new ClusterAnchorResolution(State.RESOLVED, orderedTargets, scannedCount, skippedSectionCount, memberPositions);
+    }
+
+    public static ClusterAnchorResolution tooLarge(int scannedCount, int skippedSectionCount) {
+        return new ClusterAnchorResolution(State.TOO_LARGE, List.of(), scannedCount, skippedSectionCount, new long[0]);
+    }
+
+    public static ClusterAnchorResolution none() {
+        return new ClusterAnchorResolution(State.NONE, List.of(), 0, 0, new long[0]);
+    }
+
+    /**
+     * Same cluster with its targets reordered (e.g. by the route planner).
+     */
+    public ClusterAnchorResolution withOrderedTargets(List<BlockPos> reorderedTargets) {
+        return new ClusterAnchorResolution(
+                this.state,
+                reorderedTargets,
+                this.scannedCount,
+                this.skippedSectionCount,
+                this.memberPositions);
+    }
+
+    public State state() {
+        return this.state;
+    }
+
+    public List<BlockPos> orderedTargets() {
+        return this.orderedTargets;
+    }
+
+    public int scannedCount() {
+        return this.scannedCount;
+    }
+
+    public int skippedSectionCount() {
+        return this.skippedSectionCount;
+    }
+
+    /**
+     * Every log in the scanned cluster (packed), including ones cut by the break limit. Do not modify.
+     */
+    long[] memberPositions() {
+        return this.memberPositions;
+    }
+}
@@ -0,0 +1,30 @@
+package com.asbjborg.climp.scan;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.Level;
+
+/**
+ * Plain {@link Level#getBlockState} + {@code #minecraft:logs} tag lookup. Positions in unloaded chunks
+ * read as air, so a scan never forces a chunk load.
+ */
+final class LevelLogLookup implements LogLookup {
+    private final Level level;
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+
+    LevelLogLookup(Level level) {
+        this.level = level;
+    }
+
+    @Override
+    public boolean isLog(int x, int y, int z) {
+        this.cursor.set(x, y, z);
+        return this.level.isLoaded(this.cursor) && this.level.getBlockState(this.cursor).is(BlockTags.LOGS);
+    }
+
+    @Override
+    public boolean isTrunkFooting(int x, int y, int z) {
+        this.cursor.set(x, y, z);
+        return this.level.isLoaded(this.cursor) && LogBlockStates.isTrunkFooting(this.level.getBlockState(this.cursor));
+    }
+}
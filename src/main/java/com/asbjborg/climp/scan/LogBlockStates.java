@@ -0,0 +1,52 @@
+package com.asbjborg.climp.scan;
+
+import java.util.BitSet;
+
+import javax.annotation.Nullable;
+
+import net.minecraft.tags.BlockTags;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Bitset of every block-state id in {@code #minecraft:logs}. Rebuilt lazily after tags reload.
+ */
+public final class LogBlockStates {
+    @Nullable
+    private static volatile BitSet logStateIds;
+
+    private LogBlockStates() {
+    }
+
+    public static boolean isLog(BlockState state) {
+        return ids().get(Block.getId(state));
+    }
+
+    /**
+     * Solid, non-log, non-leaf ground a tree trunk can grow from.
+     */
+    public static boolean isTrunkFooting(BlockState state) {
+        return !state.isAir() && state.isSolid() && !isLog(state) && !state.is(BlockTags.LEAVES);
+    }
+
+    /**
+     * Drops the cached bitset; call whenever block tags are (re)loaded.
+     */
+    public static void invalidate() {
+        logStateIds = null;
+    }
+
+    private static BitSet ids() {
+        BitSet ids = logStateIds;
+        if (ids == null) {
+            ids = new BitSet(Block.BLOCK_STATE_REGISTRY.size());
+            for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+                if (state.is(BlockTags.LOGS)) {
+                    ids.set(Block.getId(state));
+                }
+            }
+            logStateIds = ids;
+        }
+        return ids;
+    }
+}
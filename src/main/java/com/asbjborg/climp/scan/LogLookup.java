@@ -0,0 +1,28 @@
+package com.asbjborg.climp.scan;
+
+/**
+ * Log test used by the tree scanner, so the flood fill does not care where block states come from.
+ */
+interface LogLookup {
+    boolean isLog(int x, int y, int z);
+
+    /**
+     * Whether a trunk could stand on this block (see {@link LogBlockStates#isTrunkFooting}). Only asked
+     * for the block under the bottom log of a column.
+     */
+    boolean isTrunkFooting(int x, int y, int z);
+
+    /**
+     * Number of chunk sections this lookup skipped without reading a single cell.
+     */
+    default int skippedSectionCount() {
+        return 0;
+    }
+
+    /**
+     * Called before each budgeted slice of a scan that spans several ticks; drop anything cached from
+     * the world that may have changed since the previous slice.
+     */
+    default void beginSlice() {
+    }
+}
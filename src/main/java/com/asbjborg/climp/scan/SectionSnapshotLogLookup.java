@@ -0,0 +1,153 @@
+package com.asbjborg.climp.scan;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+
+/**
+ * Log lookup over copied {@link PalettedContainer}s, safe to read from a worker thread. Only sections
+ * in a fixed box around the clicked log that hold logs (or sit right under them) are copied; probes
+ * outside the box are recorded so the server thread can tell whether the tree was cut off by the
+ * snapshot edge.
+ */
+final class SectionSnapshotLogLookup implements LogLookup {
+    private final int minSectionX;
+    private final int maxSectionX;
+    private final int minSectionY;
+    private final int maxSectionY;
+    private final int minSectionZ;
+    private final int maxSectionZ;
+    private final Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections;
+    private final int skippedSections;
+    private final LongOpenHashSet boundaryProbes = new LongOpenHashSet();
+    private long lastSectionKey = Long.MIN_VALUE;
+    @Nullable
+    private PalettedContainer<BlockState> lastSection;
+
+    private SectionSnapshotLogLookup(
+            int minSectionX,
+            int maxSectionX,
+            int minSectionY,
+            int maxSectionY,
+            int minSectionZ,
+            int maxSectionZ,
+            Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections,
+            int skippedSections) {
+        this.minSectionX = minSectionX;
+        this.maxSectionX = maxSectionX;
+        this.minSectionY = minSectionY;
+        this.maxSectionY = maxSectionY;
+        this.minSectionZ = minSectionZ;
+        this.maxSectionZ = maxSectionZ;
+        this.sections = sections;
+        this.skippedSections = skippedSections;
+    }
+
+    /**
+     * Copies every loaded, log-bearing section in the box. Must run on the server thread.
+     */
+    static SectionSnapshotLogLookup capture(
+            ServerLevel level,
+            BlockPos center,
+            int horizontalRadiusSections,
+            int sectionsBelow,
+            int sectionsAbove) {
+        int centerX = SectionPos.blockToSectionCoord(center.getX());
+        int centerY = SectionPos.blockToSectionCoord(center.getY());
+        int centerZ = SectionPos.blockToSectionCoord(center.getZ());
+        int minY = Math.max(level.getMinSection(), centerY - sectionsBelow);
+        int maxY = Math.min(level.getMaxSection() - 1, centerY + sectionsAbove);
+
+        Long2ObjectOpenHashMap<PalettedContainer<BlockState>> sections = new Long2ObjectOpenHashMap<>();
+        int skipped = 0;
+        for (int sectionX = centerX - horizontalRadiusSections; sectionX <= centerX + horizontalRadiusSections; sectionX++) {
+            for (int sectionZ = centerZ - horizontalRadiusSections; sectionZ <= centerZ + horizontalRadiusSections; sectionZ++) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+                if (chunk == null) {
+                    skipped += maxY - minY + 1;
+                    continue;
+                }
+
+                boolean logsAbove = false;
+                for (int sectionY = maxY; sectionY >= minY; sectionY--) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sectionY));
+                    boolean hasLogs = !section.hasOnlyAir() && section.maybeHas(LogBlockStates::isLog);
+                    if (!hasLogs) {
+                        skipped++;
+                    }
+                    // Log-free sections right under logs are kept too: trunk segmentation reads the ground.
+                    if (hasLogs || (logsAbove && !section.hasOnlyAir())) {
+                        sections.put(SectionPos.asLong(sectionX, sectionY, sectionZ), section.getStates().copy());
+                    }
+                    logsAbove = hasLogs;
+                }
+            }
+        }
+
+        return new SectionSnapshotLogLookup(
+                centerX - horizontalRadiusSections,
+                centerX + horizontalRadiusSections,
+                minY,
+                maxY,
+                centerZ - horizontalRadiusSections,
+                centerZ + horizontalRadiusSections,
+                sections,
+                skipped);
+    }
+
+    @Override
+    public boolean isLog(int x, int y, int z) {
+        int sectionX = SectionPos.blockToSectionCoord(x);
+        int sectionY = SectionPos.blockToSectionCoord(y);
+        int sectionZ = SectionPos.blockToSectionCoord(z);
+        if (sectionX < this.minSectionX || sectionX > this.maxSectionX
+                || sectionY < this.minSectionY || sectionY > this.maxSectionY
+                || sectionZ < this.minSectionZ || sectionZ > this.maxSectionZ) {
+            this.boundaryProbes.add(BlockPos.asLong(x, y, z));
+            return false;
+        }
+
+        PalettedContainer<BlockState> section = this.sectionAt(x, y, z);
+        return section != null && LogBlockStates.isLog(section.get(x & 15, y & 15, z & 15));
+    }
+
+    @Nullable
+    private PalettedContainer<BlockState> sectionAt(int x, int y, int z) {
+        long key = SectionPos.asLong(
+                SectionPos.blockToSectionCoord(x),
+                SectionPos.blockToSectionCoord(y),
+                SectionPos.blockToSectionCoord(z));
+        if (key != this.lastSectionKey) {
+            this.lastSectionKey = key;
+            this.lastSection = this.sections.get(key);
+        }
+        return this.lastSection;
+    }
+
+    @Override
+    public boolean isTrunkFooting(int x, int y, int z) {
+        PalettedContainer<BlockState> section = this.sectionAt(x, y, z);
+        return section != null && LogBlockStates.isTrunkFooting(section.get(x & 15, y & 15, z & 15));
+    }
+
+    @Override
+    public int skippedSectionCount() {
+        return this.skippedSections;
+    }
+
+    /**
+     * Positions outside the snapshot that the flood fill wanted to test.
+     */
+    LongArrayList boundaryProbes() {
+        return new LongArrayList(this.boundaryProbes);
+    }
+}
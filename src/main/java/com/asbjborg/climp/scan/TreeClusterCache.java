@@ -0,0 +1,165 @@
+package com.asbjborg.climp.scan;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.asbjborg.climp.ClimpConfig;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+/**
+ * Per-level cache of resolved tree clusters, indexed by every member log so clicking any log of a known
+ * tree is a hit. An entry only matches the limits and scan settings ({@link #scanFlags()}) it was
+ * resolved with. Entries are dropped when a block at or next to a member changes, when they get too old,
+ * or when the cache is full.
+ */
+public final class TreeClusterCache {
+    private static final int MAX_ENTRIES_PER_LEVEL = 64;
+    private static final long MAX_ENTRY_AGE_TICKS = 20L * 60L;
+    private static final int FLAG_SEGMENT_TRUNKS = 1;
+    private static final int FLAG_ROUTE_PLANNING = 1 << 1;
+    private static final int FLAG_PALETTE_LOOKUP = 1 << 2;
+
+    private static final Map<ResourceKey<Level>, TreeClusterCache> BY_LEVEL = new HashMap<>();
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+    private static long invalidations;
+
+    private final Long2ObjectOpenHashMap<Entry> entriesByMember = new Long2ObjectOpenHashMap<>();
+    private final Deque<Entry> entriesByAge = new ArrayDeque<>();
+
+    private TreeClusterCache() {
+    }
+
+    public static TreeClusterCache forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new TreeClusterCache());
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    /**
+     * Drops every entry with a member at or next to the changed position.
+     */
+    public static void onBlockChanged(ServerLevel level, BlockPos pos) {
+        TreeClusterCache cache = BY_LEVEL.get(level.dimension());
+        if (cache == null || cache.entriesByMember.isEmpty()) {
+            return;
+        }
+
+        int x = pos.getX();
+        int y = pos.getY();
+        int z = pos.getZ();
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    Entry entry = cache.entriesByMember.get(BlockPos.asLong(x + dx, y + dy, z + dz));
+                    if (entry != null) {
+                        cache.remove(entry);
+                        invalidations++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The config switches that change what a scan resolves, packed for the entry key. Read on the server
+     * thread when the scan is started.
+     */
+    public static int scanFlags() {
+        int flags = 0;
+        if (ClimpConfig.COMMAND_TREE_SEGMENTATION.getAsBoolean()) {
+            flags |= FLAG_SEGMENT_TRUNKS;
+        }
+        if (ClimpConfig.COMMAND_TREE_ROUTE_PLANNING.getAsBoolean()) {
+            flags |= FLAG_ROUTE_PLANNING;
+        }
+        if (ClimpConfig.COMMAND_TREE_SCAN_PALETTE_LOOKUP.getAsBoolean()) {
+            flags |= FLAG_PALETTE_LOOKUP;
+        }
+        return flags;
+    }
+
+    public static String describeStats() {
+        int entries = 0;
+        for (TreeClusterCache cache : BY_LEVEL.values()) {
+            entries += cache.entriesByAge.size();
+        }
+        return "Climp tree cache: entries=" + entries + ", hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", invalidations=" + invalidations;
+    }
+
+    @Nullable
+    public ClusterAnchorResolution get(ServerLevel level, BlockPos clickedPos, int scanLimit, int breakLimit, int scanFlags) {
+        this.evictExpired(level.getGameTime());
+        Entry entry = this.entriesByMember.get(clickedPos.asLong());
+        if (entry == null || entry.scanLimit() != scanLimit || entry.breakLimit() != breakLimit || entry.scanFlags() != scanFlags) {
+            misses++;
+            return null;
+        }
+
+        hits++;
+        return entry.resolution();
+    }
+
+    public void put(ServerLevel level, ClusterAnchorResolution resolution, int scanLimit, int breakLimit, int scanFlags) {
+        long[] members = resolution.memberPositions();
+        if (resolution.state() != ClusterAnchorResolution.State.RESOLVED || members.length == 0) {
+            return;
+        }
+
+        // A member can only belong to one entry; replace whatever cached the same logs before.
+        for (long member : members) {
+            Entry overlapping = this.entriesByMember.get(member);
+            if (overlapping != null) {
+                this.remove(overlapping);
+            }
+        }
+
+        while (this.entriesByAge.size() >= MAX_ENTRIES_PER_LEVEL) {
+            this.remove(this.entriesByAge.peekFirst());
+            evictions++;
+        }
+
+        Entry entry = new Entry(resolution, members, scanLimit, breakLimit, scanFlags, level.getGameTime());
+        this.entriesByAge.addLast(entry);
+        for (long member : members) {
+            this.entriesByMember.put(member, entry);
+        }
+    }
+
+    private void evictExpired(long gameTime) {
+        while (!this.entriesByAge.isEmpty() && gameTime - this.entriesByAge.peekFirst().createdGameTime() > MAX_ENTRY_AGE_TICKS) {
+            this.remove(this.entriesByAge.peekFirst());
+            evictions++;
+        }
+    }
+
+    private void remove(Entry entry) {
+        this.entriesByAge.remove(entry);
+        for (long member : entry.members()) {
+            this.entriesByMember.remove(member, entry);
+        }
+    }
+
+    private record Entry(
+            ClusterAnchorResolution resolution,
+            long[] members,
+            int scanLimit,
+            int breakLimit,
+            int scanFlags,
+            long createdGameTime) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.asbjborg.climp.scan;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.asbjborg.climp.ClimpConfig;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+/**
+ * Flood fill over 26-connected logs, working on {@link BlockPos#asLong()}-packed positions so a scan
+ * allocates a handful of primitive buffers instead of one {@link BlockPos} per neighbour probe. Block
+ * states come from a {@link LogLookup}: either the level itself or its chunk sections directly. The fill
+ * itself lives in {@link TreeScanJob} so it can also be run in budgeted slices, and can optionally be
+ * split per trunk by {@link TrunkSegmenter}.
+ */
+public final class TreeClusterScanner {
+    static final int NEIGHBOUR_COUNT = 26;
+    static final int[] NEIGHBOUR_DX = new int[NEIGHBOUR_COUNT];
+    static final int[] NEIGHBOUR_DY = new int[NEIGHBOUR_COUNT];
+    static final int[] NEIGHBOUR_DZ = new int[NEIGHBOUR_COUNT];
+
+    // Sort key layout: [y + 2048 : 12 bits][distSqr to anchor : 28 bits][discovery index : 16 bits].
+    private static final int SORT_Y_OFFSET = 2048;
+    private static final int SORT_Y_SHIFT = 44;
+    private static final int SORT_DIST_SHIFT = 16;
+    private static final long SORT_DIST_MAX = (1L << (SORT_Y_SHIFT - SORT_DIST_SHIFT)) - 1L;
+    private static final long SORT_INDEX_MASK = (1L << SORT_DIST_SHIFT) - 1L;
+
+    static {
+        // Same visiting order as the original dx/dy/dz loops so BFS discovery order is unchanged.
+        int i = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    if (dx == 0 && dy == 0 && dz == 0) {
+                        continue;
+                    }
+                    NEIGHBOUR_DX[i] = dx;
+                    NEIGHBOUR_DY[i] = dy;
+                    NEIGHBOUR_DZ[i] = dz;
+                    i++;
+                }
+            }
+        }
+    }
+
+    private TreeClusterScanner() {
+    }
+
+    public static ClusterAnchorResolution resolve(Level level, BlockPos startPos, int scanLimit, int breakLimit) {
+        return resolve(liveLookup(level), startPos, scanLimit, breakLimit, segmentTrunks());
+    }
+
+    static ClusterAnchorResolution resolve(
+            LogLookup lookup, BlockPos startPos, int scanLimit, int breakLimit, boolean segmentTrunks) {
+        return new TreeScanJob(lookup, startPos, scanLimit, breakLimit, segmentTrunks).runToCompletion();
+    }
+
+    /**
+     * Read on the server thread; worker scans get the value passed in.
+     */
+    static boolean segmentTrunks() {
+        return ClimpConfig.COMMAND_TREE_SEGMENTATION.getAsBoolean();
+    }
+
+    /**
+     * Lookup used for scans against the live level, as configured.
+     */
+    static LogLookup liveLookup(Level level) {
+        return ClimpConfig.COMMAND_TREE_SCAN_PALETTE_LOOKUP.getAsBoolean()
+                ? new ChunkSectionLogLookup(level)
+                : new LevelLogLookup(level);
+    }
+
+    /**
+     * Anchor first, then by Y and distance to the anchor. Ties keep BFS discovery order.
+     */
+    static List<BlockPos> orderTargets(LongArrayList discoveredLogs, long anchor, int breakLimit) {
+        int anchorX = BlockPos.getX(anchor);
+        int anchorY = BlockPos.getY(anchor);
+        int anchorZ = BlockPos.getZ(anchor);
+
+        long[] sortKeys = new long[discoveredLogs.size() - 1];
+        int keyCount = 0;
+        for (int i = 0; i < discoveredLogs.size(); i++) {
+            long pos = discoveredLogs.getLong(i);
+            if (pos == anchor) {
+                continue;
+            }
+            long dx = BlockPos.getX(pos) - anchorX;
+            long dy = BlockPos.getY(pos) - anchorY;
+            long dz = BlockPos.getZ(pos) - anchorZ;
+            long distSqr = Math.min(SORT_DIST_MAX, dx * dx + dy * dy + dz * dz);
+            sortKeys[keyCount++] = ((long) (BlockPos.getY(pos) + SORT_Y_OFFSET) << SORT_Y_SHIFT)
+                    | (distSqr << SORT_DIST_SHIFT)
+                    | i;
+        }
+        Arrays.sort(sortKeys, 0, keyCount);
+
+        int targetCount = Math.min(breakLimit, keyCount + 1);
+        List<BlockPos> orderedTargets = new ArrayList<>(targetCount);
+        orderedTargets.add(BlockPos.of(anchor));
+        for (int i = 0; i < keyCount && orderedTargets.size() < targetCount; i++) {
+            int index = (int) (sortKeys[i] & SORT_INDEX_MASK);
+            orderedTargets.add(BlockPos.of(discoveredLogs.getLong(index)));
+        }
+        return orderedTargets;
+    }
+
+    static boolean isBetterAnchor(long candidate, long currentAnchor, long clickedStart) {
+        int candidateY = BlockPos.getY(candidate);
+        int anchorY = BlockPos.getY(currentAnchor);
+        if (candidateY != anchorY) {
+            return candidateY < anchorY;
+        }
+        return distSqr(candidate, clickedStart) < distSqr(currentAnchor, clickedStart);
+    }
+
+    private static long distSqr(long a, long b) {
+        long dx = BlockPos.getX(a) - BlockPos.getX(b);
+        long dy = BlockPos.getY(a) - BlockPos.getY(b);
+        long dz = BlockPos.getZ(a) - BlockPos.getZ(b);
+        return dx * dx + dy * dy + dz * dz;
+    }
+}
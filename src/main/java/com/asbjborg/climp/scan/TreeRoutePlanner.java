@@ -0,0 +1,285 @@
+package com.asbjborg.climp.scan;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+
+/**
+ * Reorders chomp-mode targets to cut walking. Logs are grouped by the standing spot they can be broken
+ * from: a free (log-less) spot beside the group's lowest log, with every member within
+ * {@value #REACH_BLOCKS} blocks of it. Groups are visited in a nearest-neighbour order refined by 2-opt,
+ * both restricted to support order: a group is only visited after every group holding a log that one of
+ * its logs rests on (directly or diagonally below). The anchor's group always comes first and each
+ * group is broken bottom-up, so a log is never queued before the log it stands on.
+ */
+public final class TreeRoutePlanner {
+    /** Clusters with at least this many targets are planned on a worker thread. */
+    public static final int ASYNC_PLAN_THRESHOLD = 256;
+
+    private static final double REACH_BLOCKS = 3.0D;
+    private static final int MAX_TWO_OPT_PASSES = 8;
+    // Free-spot candidates beside a log: the four sides first, then the corners.
+    private static final int[][] STANDING_OFFSETS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private TreeRoutePlanner() {
+    }
+
+    /**
+     * Returns the resolution with its targets in route order; anything but a multi-target resolved
+     * cluster is returned unchanged.
+     */
+    public static ClusterAnchorResolution plan(ClusterAnchorResolution resolution) {
+        List<BlockPos> targets = resolution.orderedTargets();
+        if (resolution.state() != ClusterAnchorResolution.State.RESOLVED || targets.size() <= 2) {
+            return resolution;
+        }
+        return resolution.withOrderedTargets(route(targets, resolution.memberPositions()));
+    }
+
+    private static List<BlockPos> route(List<BlockPos> targets, long[] memberPositions) {
+        LongOpenHashSet logs = new LongOpenHashSet(memberPositions);
+        for (BlockPos target : targets) {
+            logs.add(target.asLong());
+        }
+
+        // Anchor first, then bottom-up, so a log's supporters are grouped before it (the anchor's own
+        // supporters aside: its group is visited first regardless).
+        int[] order = new int[targets.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.mergeSort(order, 1, order.length,
+                (a, b) -> Integer.compare(targets.get(a).getY(), targets.get(b).getY()));
+
+        Long2IntOpenHashMap groupByLog = new Long2IntOpenHashMap();
+        groupByLog.defaultReturnValue(-1);
+        List<IntArrayList> groupMembers = new ArrayList<>();
+        IntArrayList groupX = new IntArrayList();
+        IntArrayList groupY = new IntArrayList();
+        IntArrayList groupZ = new IntArrayList();
+        for (int index : order) {
+            BlockPos target = targets.get(index);
+            int group = pickGroup(target, groupByLog, groupX, groupY, groupZ);
+            if (group < 0) {
+                group = groupMembers.size();
+                groupMembers.add(new IntArrayList());
+                BlockPos standing = standingSpotBeside(target, logs);
+                groupX.add(standing.getX());
+                groupY.add(standing.getY());
+                groupZ.add(standing.getZ());
+            }
+            groupMembers.get(group).add(index);
+            groupByLog.put(target.asLong(), group);
+        }
+
+        int groupCount = groupMembers.size();
+        BitSet[] dependencies = supportDependencies(targets, groupMembers, groupByLog);
+        int[] tour = nearestNeighbourTour(groupCount, dependencies, groupX, groupY, groupZ);
+        improveWithTwoOpt(tour, dependencies, groupX, groupY, groupZ);
+
+        List<BlockPos> routed = new ArrayList<>(targets.size());
+        for (int group : tour) {
+            IntArrayList members = groupMembers.get(group);
+            for (int i = 0; i < members.size(); i++) {
+                routed.add(targets.get(members.getInt(i)));
+            }
+        }
+        return routed;
+    }
+
+    /**
+     * The closest group whose standing spot reaches the log and that is not created before any group
+     * the log rests on. Groups only ever depend on earlier groups, so support order cannot form a
+     * cycle. Returns -1 if a new group is needed.
+     */
+    private static int pickGroup(
+            BlockPos target,
+            Long2IntOpenHashMap groupByLog,
+            IntArrayList groupX,
+            IntArrayList groupY,
+            IntArrayList groupZ) {
+        int lowestAllowed = 0;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dz = -1; dz <= 1; dz++) {
+                lowestAllowed = Math.max(lowestAllowed, groupByLog.get(BlockPos.asLong(target.getX() + dx, target.getY() - 1, target.getZ() + dz)));
+            }
+        }
+
+        int best = -1;
+        double bestDistanceSqr = REACH_BLOCKS * REACH_BLOCKS;
+        for (int group = lowestAllowed; group < groupX.size(); group++) {
+            double dx = groupX.getInt(group) - target.getX();
+            double dy = groupY.getInt(group) - target.getY();
+            double dz = groupZ.getInt(group) - target.getZ();
+            double distanceSqr = dx * dx + dy * dy + dz * dz;
+            if (distanceSqr <= bestDistanceSqr) {
+                bestDistanceSqr = distanceSqr;
+                best = group;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * A spot next to the log, at its height, that holds no log of the cluster; the log itself if it is
+     * boxed in.
+     */
+    private static BlockPos standingSpotBeside(BlockPos log, LongOpenHashSet logs) {
+        for (int[] offset : STANDING_OFFSETS) {
+            long candidate = BlockPos.asLong(log.getX() + offset[0], log.getY(), log.getZ() + offset[1]);
+            if (!logs.contains(candidate)) {
+                return BlockPos.of(candidate);
+            }
+        }
+        return log;
+    }
+
+    /**
+     * For each group, the other groups holding a log that one of its logs rests on (directly below or
+     * diagonally below).
+     */
+    private static BitSet[] supportDependencies(List<BlockPos> targets, List<IntArrayList> groupMembers, Long2IntOpenHashMap groupByLog) {
+        BitSet[] dependencies = new BitSet[groupMembers.size()];
+        for (int group = 0; group < dependencies.length; group++) {
+            BitSet groupDependencies = new BitSet();
+            IntArrayList members = groupMembers.get(group);
+            for (int i = 0; i < members.size(); i++) {
+                BlockPos target = targets.get(members.getInt(i));
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        int supporter = groupByLog.get(BlockPos.asLong(target.getX() + dx, target.getY() - 1, target.getZ() + dz));
+                        if (supporter >= 0 && supporter != group) {
+                            groupDependencies.set(supporter);
+                        }
+                    }
+                }
+            }
+            dependencies[group] = groupDependencies;
+        }
+        return dependencies;
+    }
+
+    /**
+     * Greedy tour over the groups starting at group 0 (the anchor's), only stepping to groups whose
+     * supporting groups are already visited.
+     */
+    private static int[] nearestNeighbourTour(
+            int groupCount,
+            BitSet[] dependencies,
+            IntArrayList groupX,
+            IntArrayList groupY,
+            IntArrayList groupZ) {
+        int[] tour = new int[groupCount];
+        BitSet visited = new BitSet(groupCount);
+        tour[0] = 0;
+        visited.set(0);
+        for (int step = 1; step < groupCount; step++) {
+            int from = tour[step - 1];
+            int best = -1;
+            double bestCost = Double.MAX_VALUE;
+            for (int candidate = visited.nextClearBit(0); candidate < groupCount; candidate = visited.nextClearBit(candidate + 1)) {
+                if (!isReady(dependencies[candidate], visited)) {
+                    continue;
+                }
+                double cost = cost(from, candidate, groupX, groupY, groupZ);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = candidate;
+                }
+            }
+            if (best < 0) {
+                // Only the anchor's group can depend on later groups, and it is already visited; kept as a
+                // guard so a malformed cluster still yields a full route.
+                best = visited.nextClearBit(0);
+            }
+            tour[step] = best;
+            visited.set(best);
+        }
+        return tour;
+    }
+
+    private static boolean isReady(BitSet dependencies, BitSet visited) {
+        for (int dependency = dependencies.nextSetBit(0); dependency >= 0; dependency = dependencies.nextSetBit(dependency + 1)) {
+            if (!visited.get(dependency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 2-opt over an open path with a fixed start: reverse tour[i..j] whenever that shortens the walk
+     * and keeps support order. Reversing only swaps the order of groups inside the segment, so it is
+     * allowed when no group there rests on another one there.
+     */
+    private static void improveWithTwoOpt(
+            int[] tour,
+            BitSet[] dependencies,
+            IntArrayList groupX,
+            IntArrayList groupY,
+            IntArrayList groupZ) {
+        int n = tour.length;
+        for (int pass = 0; pass < MAX_TWO_OPT_PASSES; pass++) {
+            boolean improved = false;
+            for (int i = 1; i < n - 1; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    int before = tour[i - 1];
+                    double removed = cost(before, tour[i], groupX, groupY, groupZ);
+                    double added = cost(before, tour[j], groupX, groupY, groupZ);
+                    if (j + 1 < n) {
+                        int after = tour[j + 1];
+                        removed += cost(tour[j], after, groupX, groupY, groupZ);
+                        added += cost(tour[i], after, groupX, groupY, groupZ);
+                    }
+                    if (added + 1.0E-6D < removed && !hasDependencyWithin(tour, i, j, dependencies)) {
+                        reverse(tour, i, j);
+                        improved = true;
+                    }
+                }
+            }
+            if (!improved) {
+                return;
+            }
+        }
+    }
+
+    private static boolean hasDependencyWithin(int[] tour, int from, int to, BitSet[] dependencies) {
+        for (int later = from + 1; later <= to; later++) {
+            BitSet laterDependencies = dependencies[tour[later]];
+            if (laterDependencies.isEmpty()) {
+                continue;
+            }
+            for (int earlier = from; earlier < later; earlier++) {
+                if (laterDependencies.get(tour[earlier])) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double cost(int a, int b, IntArrayList groupX, IntArrayList groupY, IntArrayList groupZ) {
+        double dx = groupX.getInt(a) - groupX.getInt(b);
+        double dy = groupY.getInt(a) - groupY.getInt(b);
+        double dz = groupZ.getInt(a) - groupZ.getInt(b);
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    private static void reverse(int[] tour, int from, int to) {
+        while (from < to) {
+            int swap = tour[from];
+            tour[from] = tour[to];
+            tour[to] = swap;
+            from++;
+            to--;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.asbjborg.climp.scan;
+
+import java.util.concurrent.CancellationException;
+
+import javax.annotation.Nullable;
+
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.core.BlockPos;
+
+/**
+ * Resumable flood fill: the frontier and visited set live on the job, so a scan can run to completion
+ * in one call or be stepped a slice at a time across server ticks. With trunk segmentation on, logs that
+ * belong to a neighbouring tree are marked visited but neither kept nor expanded. A job run on a worker
+ * thread can be cancelled from the server thread; the fill notices between BFS layers.
+ * <p>
+ * The fill ({@link #step}) is the only part that reads the lookup, including the start-log probe and the
+ * clicked trunk's column walk, which run in the first step. {@link #finish} only touches the job's own
+ * collections, so a budgeted scan can hand it to a worker once the fill is done.
+ */
+final class TreeScanJob {
+    private final LogLookup lookup;
+    private final int scanLimit;
+    private final int breakLimit;
+    private final long start;
+    private final boolean segmentTrunks;
+    private final LongOpenHashSet visitedLogs;
+    private final LongArrayList discoveredLogs;
+    private final LongArrayFIFOQueue queue;
+    @Nullable
+    private TrunkSegmenter segmenter;
+    private long anchor;
+    // Positions left in the BFS layer being expanded; the cancel flag is checked when it runs out.
+    private int layerRemaining = 1;
+    private volatile boolean cancelled;
+    private boolean started;
+    private boolean filled;
+    private int skippedSectionCount;
+    @Nullable
+    private ClusterAnchorResolution result;
+
+    TreeScanJob(LogLookup lookup, BlockPos startPos, int scanLimit, int breakLimit, boolean segmentTrunks) {
+        this.lookup = lookup;
+        this.scanLimit = scanLimit;
+        this.breakLimit = breakLimit;
+        this.start = startPos.asLong();
+        this.anchor = this.start;
+        this.segmentTrunks = segmentTrunks;
+
+        int expectedSize = Math.min(scanLimit, 2048) + TreeClusterScanner.NEIGHBOUR_COUNT;
+        this.visitedLogs = new LongOpenHashSet(expectedSize);
+        this.discoveredLogs = new LongArrayList(expectedSize);
+        this.queue = new LongArrayFIFOQueue(expectedSize);
+    }
+
+    /**
+     * True once the fill has ended, successfully or not; only {@link #finish} is left to call.
+     */
+    boolean isFilled() {
+        return this.filled;
+    }
+
+    void beginSlice() {
+        this.lookup.beginSlice();
+    }
+
+    /**
+     * Asks the fill to stop at the next BFS layer. Safe to call from any thread.
+     */
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    /**
+     * @throws CancellationException if the job is cancelled before it finishes
+     */
+    ClusterAnchorResolution runToCompletion() {
+        if (!this.step(Long.MAX_VALUE)) {
+            throw new CancellationException("Tree scan cancelled");
+        }
+        return this.finish();
+    }
+
+    /**
+     * Expands the frontier until the fill ends, {@link System#nanoTime()} passes the deadline or the job
+     * is cancelled. The first call also probes the start log and walks its trunk column.
+     *
+     * @return true once the fill has ended
+     */
+    boolean step(long deadlineNanos) {
+        if (this.filled) {
+            return true;
+        }
+        if (!this.started) {
+            this.started = true;
+            if (!this.begin()) {
+                this.result = ClusterAnchorResolution.none();
+                this.filled = true;
+                return true;
+            }
+        }
+
+        while (!this.queue.isEmpty()) {
+            if (deadlineNanos != Long.MAX_VALUE && System.nanoTime() >= deadlineNanos) {
+                return false;
+            }
+            if (--this.layerRemaining < 0) {
+                if (this.cancelled) {
+                    return false;
+                }
+                this.layerRemaining = this.queue.size() - 1;
+            }
+
+            long current = this.queue.dequeueLong();
+            if (this.discoveredLogs.size() > this.scanLimit) {
+                this.result = ClusterAnchorResolution.tooLarge(this.visitedLogs.size(), this.lookup.skippedSectionCount());
+                this.filled = true;
+                return true;
+            }
+
+            if (TreeClusterScanner.isBetterAnchor(current, this.anchor, this.start)) {
+                this.anchor = current;
+            }
+
+            int x = BlockPos.getX(current);
+            int y = BlockPos.getY(current);
+            int z = BlockPos.getZ(current);
+            for (int i = 0; i < TreeClusterScanner.NEIGHBOUR_COUNT; i++) {
+                int nx = x + TreeClusterScanner.NEIGHBOUR_DX[i];
+                int ny = y + TreeClusterScanner.NEIGHBOUR_DY[i];
+                int nz = z + TreeClusterScanner.NEIGHBOUR_DZ[i];
+                long next = BlockPos.asLong(nx, ny, nz);
+                if (this.visitedLogs.contains(next) || !this.lookup.isLog(nx, ny, nz)) {
+                    continue;
+                }
+
+                this.visitedLogs.add(next);
+                if (this.segmenter != null && !this.segmenter.accepts(nx, ny, nz)) {
+                    continue;
+                }
+                this.discoveredLogs.add(next);
+                this.queue.enqueue(next);
+            }
+        }
+
+        this.skippedSectionCount = this.lookup.skippedSectionCount();
+        this.filled = true;
+        return true;
+    }
+
+    /**
+     * Turns a finished fill into the result: drops other trunks' branches and orders the targets. Reads
+     * nothing but the job, so it may run on any thread once {@link #isFilled()} is true.
+     */
+    ClusterAnchorResolution finish() {
+        if (this.result != null) {
+            return this.result;
+        }
+        if (!this.filled) {
+            throw new IllegalStateException("Tree scan finished before its fill ended");
+        }
+
+        if (this.segmenter != null) {
+            this.dropOtherTrunksBranches();
+        }
+        this.result = ClusterAnchorResolution.resolved(
+                TreeClusterScanner.orderTargets(this.discoveredLogs, this.anchor, this.breakLimit),
+                this.visitedLogs.size(),
+                this.skippedSectionCount,
+                this.discoveredLogs.toLongArray());
+        return this.result;
+    }
+
+    private boolean begin() {
+        BlockPos startPos = BlockPos.of(this.start);
+        if (!this.lookup.isLog(startPos.getX(), startPos.getY(), startPos.getZ())) {
+            return false;
+        }
+        TrunkSegmenter trunks = this.segmentTrunks ? new TrunkSegmenter(this.lookup, startPos) : null;
+        // A floating or unrooted log has no trunk to segment around; fall back to the plain fill.
+        this.segmenter = trunks != null && trunks.hasOwnTrunk() ? trunks : null;
+        this.queue.enqueue(this.start);
+        this.visitedLogs.add(this.start);
+        this.discoveredLogs.add(this.start);
+        return true;
+    }
+
+    /**
+     * Branches are accepted against the trunks known when they were reached; once the fill is done every
+     * reachable trunk is known, so re-check them and pick the anchor from what is left.
+     */
+    private void dropOtherTrunksBranches() {
+        LongArrayList kept = new LongArrayList(this.discoveredLogs.size());
+        for (int i = 0; i < this.discoveredLogs.size(); i++) {
+            long pos = this.discoveredLogs.getLong(i);
+            if (this.segmenter.belongsToOwnTrunk(pos)) {
+                kept.add(pos);
+            }
+        }
+        if (kept.size() == this.discoveredLogs.size()) {
+            return;
+        }
+
+        this.discoveredLogs.clear();
+        this.discoveredLogs.addAll(kept);
+        this.anchor = this.start;
+        for (int i = 0; i < kept.size(); i++) {
+            if (TreeClusterScanner.isBetterAnchor(kept.getLong(i), this.anchor, this.start)) {
+                this.anchor = kept.getLong(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.asbjborg.climp.scan;
+
+/**
+ * Where the command-rod tree scan runs.
+ */
+public enum TreeScanMode {
+    /** Scan inline on the server thread while handling the rod click. */
+    SYNC,
+    /** Snapshot chunk sections on the server thread, flood fill on a worker, dispatch on a later tick. */
+    ASYNC,
+    /** Flood fill on the server thread in slices capped by a per-tick time budget shared by all scans. */
+    BUDGETED
+}
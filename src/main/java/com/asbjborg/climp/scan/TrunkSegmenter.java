@@ -0,0 +1,145 @@
+package com.asbjborg.climp.scan;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+
+/**
+ * Splits a log flood fill into trees. A trunk is a set of ground-rooted vertical log columns whose bases
+ * touch; every other log is a branch and belongs to the nearest trunk (horizontally). The scan keeps logs
+ * on the clicked trunk's columns and branches closer to it than to any other trunk, so diagonally touching
+ * canopies no longer pull in the neighbouring tree.
+ */
+final class TrunkSegmenter {
+    static final int NO_TRUNK = -1;
+    private static final int UNKNOWN = -2;
+
+    private final LogLookup lookup;
+    // Log position -> trunk id of its column, or NO_TRUNK for logs whose column never reaches the ground.
+    private final Long2IntOpenHashMap columnTrunk = new Long2IntOpenHashMap();
+    private final LongArrayList walkedColumn = new LongArrayList();
+    private final IntArrayList trunkBaseX = new IntArrayList();
+    private final IntArrayList trunkBaseY = new IntArrayList();
+    private final IntArrayList trunkBaseZ = new IntArrayList();
+    private final IntArrayList trunkOfBase = new IntArrayList();
+    private final IntArrayList trunkColumnCount = new IntArrayList();
+    private final LongArrayList trunkSumX = new LongArrayList();
+    private final LongArrayList trunkSumZ = new LongArrayList();
+    private final int ownTrunk;
+
+    TrunkSegmenter(LogLookup lookup, BlockPos clickedLog) {
+        this.lookup = lookup;
+        this.columnTrunk.defaultReturnValue(UNKNOWN);
+        this.ownTrunk = this.trunkOf(clickedLog.getX(), clickedLog.getY(), clickedLog.getZ());
+    }
+
+    /**
+     * False when the clicked log is not on a ground-rooted column; segmentation is then skipped.
+     */
+    boolean hasOwnTrunk() {
+        return this.ownTrunk != NO_TRUNK;
+    }
+
+    /**
+     * Whether the flood fill may keep (and expand from) this log, given the trunks seen so far.
+     */
+    boolean accepts(int x, int y, int z) {
+        int trunk = this.trunkOf(x, y, z);
+        if (trunk != NO_TRUNK) {
+            return trunk == this.ownTrunk;
+        }
+        return this.isNearestToOwnTrunk(x, z);
+    }
+
+    /**
+     * Final check once every trunk reachable from the scan is known.
+     */
+    boolean belongsToOwnTrunk(long pos) {
+        int trunk = this.columnTrunk.get(pos);
+        if (trunk >= 0) {
+            return trunk == this.ownTrunk;
+        }
+        return this.isNearestToOwnTrunk(BlockPos.getX(pos), BlockPos.getZ(pos));
+    }
+
+    private boolean isNearestToOwnTrunk(int x, int z) {
+        double ownDistance = this.horizontalDistanceSqr(this.ownTrunk, x, z);
+        for (int trunk = 0; trunk < this.trunkColumnCount.size(); trunk++) {
+            if (trunk != this.ownTrunk && this.horizontalDistanceSqr(trunk, x, z) < ownDistance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private double horizontalDistanceSqr(int trunk, int x, int z) {
+        double columns = this.trunkColumnCount.getInt(trunk);
+        double dx = x + 0.5D - (this.trunkSumX.getLong(trunk) / columns + 0.5D);
+        double dz = z + 0.5D - (this.trunkSumZ.getLong(trunk) / columns + 0.5D);
+        return dx * dx + dz * dz;
+    }
+
+    /**
+     * Walks down the log column under the position until it meets a known column or a non-log. Every log
+     * walked is memoised with the result, so each column is probed once.
+     */
+    private int trunkOf(int x, int y, int z) {
+        this.walkedColumn.clear();
+        int currentY = y;
+        int trunk;
+        while (true) {
+            long pos = BlockPos.asLong(x, currentY, z);
+            int known = this.columnTrunk.get(pos);
+            if (known != UNKNOWN) {
+                trunk = known;
+                break;
+            }
+            if (!this.lookup.isLog(x, currentY, z)) {
+                trunk = this.lookup.isTrunkFooting(x, currentY, z)
+                        ? this.trunkForBase(x, currentY + 1, z)
+                        : NO_TRUNK;
+                break;
+            }
+            this.walkedColumn.add(pos);
+            currentY--;
+        }
+
+        for (int i = 0; i < this.walkedColumn.size(); i++) {
+            this.columnTrunk.put(this.walkedColumn.getLong(i), trunk);
+        }
+        return trunk;
+    }
+
+    /**
+     * Joins the base column to a trunk whose base it touches (2x2 and larger trunks), or starts a new one.
+     */
+    private int trunkForBase(int x, int baseY, int z) {
+        for (int i = 0; i < this.trunkOfBase.size(); i++) {
+            if (Math.abs(this.trunkBaseX.getInt(i) - x) <= 1
+                    && Math.abs(this.trunkBaseZ.getInt(i) - z) <= 1
+                    && Math.abs(this.trunkBaseY.getInt(i) - baseY) <= 1) {
+                int trunk = this.trunkOfBase.getInt(i);
+                this.addBase(trunk, x, baseY, z);
+                return trunk;
+            }
+        }
+
+        int trunk = this.trunkColumnCount.size();
+        this.trunkColumnCount.add(0);
+        this.trunkSumX.add(0L);
+        this.trunkSumZ.add(0L);
+        this.addBase(trunk, x, baseY, z);
+        return trunk;
+    }
+
+    private void addBase(int trunk, int x, int baseY, int z) {
+        this.trunkBaseX.add(x);
+        this.trunkBaseY.add(baseY);
+        this.trunkBaseZ.add(z);
+        this.trunkOfBase.add(trunk);
+        this.trunkColumnCount.set(trunk, this.trunkColumnCount.getInt(trunk) + 1);
+        this.trunkSumX.set(trunk, this.trunkSumX.getLong(trunk) + x);
+        this.trunkSumZ.set(trunk, this.trunkSumZ.getLong(trunk) + z);
+    }
+}
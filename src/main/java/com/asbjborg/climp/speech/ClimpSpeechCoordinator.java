@@ -0,0 +1,100 @@
+package com.asbjborg.climp.speech;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.asbjborg.climp.ClimpConfig;
+import com.asbjborg.climp.entity.ClimpEntity;
+import com.asbjborg.climp.network.ClimpFeedbackOutput;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+
+/**
+ * Decides, per level, which Climp gets to speak to a player, so the speech a player hears is bounded
+ * however many Climps stand around them. Each listener has one speech window: at most one Climp
+ * speaks to them per window, task results always get through and hold off chatter, and idle chatter
+ * also spends a per-player token bucket ({@code climpChatterLinesPerMinute}). Server thread only.
+ */
+public final class ClimpSpeechCoordinator {
+    private static final Map<ResourceKey<Level>, ClimpSpeechCoordinator> BY_LEVEL = new HashMap<>();
+    private static final int CHATTER_WINDOW_TICKS = 20 * 10;
+    private static final int REACTION_WINDOW_TICKS = 20 * 2;
+    private static final double CHATTER_BURST_LINES = 2.0D;
+
+    private static long granted;
+    private static long denied;
+
+    private final Map<UUID, Listener> listeners = new HashMap<>();
+
+    private ClimpSpeechCoordinator() {
+    }
+
+    public static ClimpSpeechCoordinator forLevel(ServerLevel level) {
+        return BY_LEVEL.computeIfAbsent(level.dimension(), key -> new ClimpSpeechCoordinator());
+    }
+
+    public static void forgetPlayer(UUID playerId) {
+        for (ClimpSpeechCoordinator coordinator : BY_LEVEL.values()) {
+            coordinator.listeners.remove(playerId);
+        }
+    }
+
+    public static void clearAll() {
+        BY_LEVEL.clear();
+    }
+
+    public static String describeStats() {
+        int listeners = 0;
+        for (ClimpSpeechCoordinator coordinator : BY_LEVEL.values()) {
+            listeners += coordinator.listeners.size();
+        }
+        return "Climp speech: listeners=" + listeners + ", granted=" + granted + ", denied=" + denied;
+    }
+
+    /**
+     * Asks to speak to the player now. Returns false if another Climp has the player's window, or, for
+     * chatter, if the player's chatter budget is spent.
+     */
+    boolean trySpeak(ClimpEntity climp, ServerPlayer player, ClimpFeedbackOutput.Priority priority) {
+        int now = player.server.getTickCount();
+        Listener listener = this.listeners.computeIfAbsent(player.getUUID(), key -> new Listener(now));
+        double refillPerTick = ClimpConfig.CLIMP_CHATTER_LINES_PER_MINUTE.getAsInt() / (20.0D * 60.0D);
+        listener.chatterTokens = Math.min(CHATTER_BURST_LINES, listener.chatterTokens + (now - listener.lastRefillTick) * refillPerTick);
+        listener.lastRefillTick = now;
+
+        boolean windowOpen = now >= listener.windowEndsTick || listener.speakerId == climp.getId();
+        boolean allowed = switch (priority) {
+            case TASK_RESULT -> true;
+            case REACTION -> windowOpen;
+            case CHATTER -> windowOpen && listener.chatterTokens >= 1.0D;
+        };
+        if (!allowed) {
+            denied++;
+            return false;
+        }
+
+        if (priority == ClimpFeedbackOutput.Priority.CHATTER) {
+            listener.chatterTokens -= 1.0D;
+        }
+        int window = priority == ClimpFeedbackOutput.Priority.REACTION ? REACTION_WINDOW_TICKS : CHATTER_WINDOW_TICKS;
+        listener.windowEndsTick = Math.max(listener.windowEndsTick, now + window);
+        listener.speakerId = climp.getId();
+        granted++;
+        return true;
+    }
+
+    private static final class Listener {
+        private double chatterTokens = CHATTER_BURST_LINES;
+        private int lastRefillTick;
+        private int windowEndsTick;
+        private int speakerId = -1;
+
+        private Listener(int tick) {
+            this.lastRefillTick = tick;
+        }
+    }
+}
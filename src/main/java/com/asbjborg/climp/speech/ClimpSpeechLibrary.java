@@ -1,70 +1,146 @@
 package com.asbjborg.climp.speech;
 
-import java.util.List;
-import java.util.Map;
+import com.asbjborg.climp.sound.ClimpSoundEvents;
 
+import net.minecraft.core.Holder;
+import net.minecraft.network.chat.Component;
+import net.minecraft.sounds.SoundEvent;
 import net.minecraft.util.RandomSource;
 
+/**
+ * Compiled speech table, generated by scripts/generate_va.py from docs/va/voicelines.json (the single
+ * source of truth; do not edit by hand). Every line has an int id; a type's lines are the contiguous ids
+ * {@code first..first+count-1}, and the chat message and sound of a line are array lookups by id, so
+ * picking and sending a line allocates nothing.
+ */
 public final class ClimpSpeechLibrary {
-    /** Single source of truth: each line defines its text and the sound file name (e.g. climp_idle_1.ogg). */
-    public record Line(String text, String soundId) {}
+    public static final int NO_LINE = -1;
 
-    private static final Map<ClimpSpeechType, List<Line>> LINES = Map.of(
-            ClimpSpeechType.IDLE, List.of(
-                    new Line("I am not lost. I am exploring in circles.", "climp_idle_1"),
-                    new Line("That rock looked important.", "climp_idle_2"),
-                    new Line("I am shiny. The world is less shiny.", "climp_idle_3"),
-                    new Line("I am small. But dramatic.", "climp_idle_4"),
-                    new Line("Do creepers fear me?", "climp_idle_5"),
-                    new Line("I sense adventure nearby.", "climp_idle_6"),
-                    new Line("If I had hands, I would gesture dramatically.", "climp_idle_7"),
-                    new Line("I am ready. Probably.", "climp_idle_8"),
-                    new Line("I am observing very professionally.", "climp_idle_9")),
-            ClimpSpeechType.HIT, List.of(
-                    new Line("Hey! I am delicate metal!", "climp_hit_1"),
-                    new Line("Rude! I was being helpful!", "climp_hit_2"),
-                    new Line("Bonk detected! Friendship shaken!", "climp_hit_3"),
-                    new Line("My feelings are slightly dented.", "climp_hit_4"),
-                    new Line("I have been attacked! Dramatically!", "climp_hit_5"),
-                    new Line("Unacceptable bonking behavior!", "climp_hit_6")),
-            ClimpSpeechType.TASK_START, List.of(
-                    new Line("Ooooh yes! Time for work!", "climp_task_start_1"),
-                    new Line("Stand back! Professional noodle at work!", "climp_task_start_2"),
-                    new Line("I go now! Try not to panic!", "climp_task_start_3"),
-                    new Line("Clinks and clanks incoming!!", "climp_task_start_4")),
-            ClimpSpeechType.TASK_COMPLETE, List.of(
-                    new Line("Done! I did the thing!", "climp_task_complete_1"),
-                    new Line("Todo defeated! Victory is mine!", "climp_task_complete_2"),
-                    new Line("Success! I remain magnificent!", "climp_task_complete_3"),
-                    new Line("All done! I expect applause!", "climp_task_complete_4"),
-                    new Line("Another glorious victory!", "climp_task_complete_5")),
-            ClimpSpeechType.TASK_FAILED_UNREACHABLE, List.of(
-                    new Line("I cannot reach that! I am not stretchy enough!", "climp_task_failed_unreachable_1"),
-                    new Line("Too far! My noodle legs are short!", "climp_task_failed_unreachable_2"),
-                    new Line("This is clearly too tall for me!", "climp_task_failed_unreachable_3"),
-                    new Line("I require longer legs immediately!", "climp_task_failed_unreachable_4"),
-                    new Line("This is too trifficult!", "climp_task_failed_unreachable_5")),
-            ClimpSpeechType.TASK_FAILED_TARGET_REMOVED, List.of(
-                    new Line("Hey! It disappeared?!", "climp_task_failed_target_removed_1"),
-                    new Line("I was going to do that!", "climp_task_failed_target_removed_2"),
-                    new Line("Who took it? Show yourself!", "climp_task_failed_target_removed_3"),
-                    new Line("I blame invisible gremlins.", "climp_task_failed_target_removed_4")));
+    private static final String[] TEXTS = {
+            "I am not lost. I am exploring in circles.",
+            "That rock looked important.",
+            "I am shiny. The world is less shiny.",
+            "I am small. But dramatic.",
+            "Do creepers fear me?",
+            "I sense adventure nearby.",
+            "If I had hands, I would gesture dramatically.",
+            "I am ready. Probably.",
+            "I am observing very professionally.",
+            "Hey! I am delicate metal!",
+            "Rude! I was being helpful!",
+            "Bonk detected! Friendship shaken!",
+            "My feelings are slightly dented.",
+            "I have been attacked! Dramatically!",
+            "Unacceptable bonking behavior!",
+            "Ooooh yes! Time for work!",
+            "Stand back! Professional noodle at work!",
+            "I go now! Try not to panic!",
+            "Clinks and clanks incoming!!",
+            "Done! I did the thing!",
+            "Todo defeated! Victory is mine!",
+            "Success! I remain magnificent!",
+            "All done! I expect applause!",
+            "Another glorious victory!",
+            "I cannot reach that! I am not stretchy enough!",
+            "Too far! My noodle legs are short!",
+            "This is clearly too tall for me!",
+            "I require longer legs immediately!",
+            "This is too trifficult!",
+            "Hey! It disappeared?!",
+            "I was going to do that!",
+            "Who took it? Show yourself!",
+            "I blame invisible gremlins."
+    };
+
+    @SuppressWarnings("unchecked")
+    private static final Holder<SoundEvent>[] SOUNDS = (Holder<SoundEvent>[]) new Holder<?>[] {
+            ClimpSoundEvents.CLIMP_IDLE_1,
+            ClimpSoundEvents.CLIMP_IDLE_2,
+            ClimpSoundEvents.CLIMP_IDLE_3,
+            ClimpSoundEvents.CLIMP_IDLE_4,
+            ClimpSoundEvents.CLIMP_IDLE_5,
+            ClimpSoundEvents.CLIMP_IDLE_6,
+            ClimpSoundEvents.CLIMP_IDLE_7,
+            ClimpSoundEvents.CLIMP_IDLE_8,
+            ClimpSoundEvents.CLIMP_IDLE_9,
+            ClimpSoundEvents.CLIMP_HIT_1,
+            ClimpSoundEvents.CLIMP_HIT_2,
+            ClimpSoundEvents.CLIMP_HIT_3,
+            ClimpSoundEvents.CLIMP_HIT_4,
+            ClimpSoundEvents.CLIMP_HIT_5,
+            ClimpSoundEvents.CLIMP_HIT_6,
+            ClimpSoundEvents.CLIMP_TASK_START_1,
+            ClimpSoundEvents.CLIMP_TASK_START_2,
+            ClimpSoundEvents.CLIMP_TASK_START_3,
+            ClimpSoundEvents.CLIMP_TASK_START_4,
+            ClimpSoundEvents.CLIMP_TASK_COMPLETE_1,
+            ClimpSoundEvents.CLIMP_TASK_COMPLETE_2,
+            ClimpSoundEvents.CLIMP_TASK_COMPLETE_3,
+            ClimpSoundEvents.CLIMP_TASK_COMPLETE_4,
+            ClimpSoundEvents.CLIMP_TASK_COMPLETE_5,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_UNREACHABLE_1,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_UNREACHABLE_2,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_UNREACHABLE_3,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_UNREACHABLE_4,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_UNREACHABLE_5,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_TARGET_REMOVED_1,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_TARGET_REMOVED_2,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_TARGET_REMOVED_3,
+            ClimpSoundEvents.CLIMP_TASK_FAILED_TARGET_REMOVED_4
+    };
+
+    /** Spoken when a type has no lines. */
+    private static final int FALLBACK_LINE = TEXTS.length;
+    private static final Component FALLBACK_MESSAGE = Component.literal("Climp: ...");
+
+    private static final Component[] MESSAGES = new Component[TEXTS.length];
+    private static final int[] FIRST_LINE = new int[ClimpSpeechType.values().length];
+    private static final int[] LINE_COUNT = new int[ClimpSpeechType.values().length];
+
+    static {
+        for (int lineId = 0; lineId < TEXTS.length; lineId++) {
+            MESSAGES[lineId] = Component.literal("Climp: " + TEXTS[lineId]);
+        }
+        range(ClimpSpeechType.IDLE, 0, 9);
+        range(ClimpSpeechType.HIT, 9, 6);
+        range(ClimpSpeechType.TASK_START, 15, 4);
+        range(ClimpSpeechType.TASK_COMPLETE, 19, 5);
+        range(ClimpSpeechType.TASK_FAILED_UNREACHABLE, 24, 5);
+        range(ClimpSpeechType.TASK_FAILED_TARGET_REMOVED, 29, 4);
+    }
 
     private ClimpSpeechLibrary() {
     }
 
+    private static void range(ClimpSpeechType type, int first, int count) {
+        FIRST_LINE[type.ordinal()] = first;
+        LINE_COUNT[type.ordinal()] = count;
+    }
+
     /**
-     * Picks a random line for the given speech type. Never returns the excluded soundId if another
-     * option exists, so the same line is not repeated twice in a row.
+     * Picks a random line id for the given speech type. Never returns the excluded line if another
+     * option exists, so the same line is not repeated twice in a row: the pick is drawn from one fewer
+     * ids and shifted past the excluded one.
      */
-    public static Line randomLine(ClimpSpeechType type, RandomSource random, String excludeSoundId) {
-        List<Line> lines = LINES.get(type);
-        if (lines == null || lines.isEmpty()) {
-            return new Line("...", "climp_idle_1");
+    public static int randomLine(ClimpSpeechType type, RandomSource random, int excludeLineId) {
+        int first = FIRST_LINE[type.ordinal()];
+        int count = LINE_COUNT[type.ordinal()];
+        if (count == 0) {
+            return FALLBACK_LINE;
+        }
+        if (count == 1 || excludeLineId < first || excludeLineId >= first + count) {
+            return first + random.nextInt(count);
         }
-        List<Line> candidates = excludeSoundId != null && lines.size() > 1
-                ? lines.stream().filter(l -> !l.soundId().equals(excludeSoundId)).toList()
-                : lines;
-        return candidates.get(random.nextInt(candidates.size()));
+        int lineId = first + random.nextInt(count - 1);
+        return lineId >= excludeLineId ? lineId + 1 : lineId;
+    }
+
+    /** The chat message for the line, already prefixed with the speaker. */
+    public static Component message(int lineId) {
+        return lineId == FALLBACK_LINE ? FALLBACK_MESSAGE : MESSAGES[lineId];
+    }
+
+    public static Holder<SoundEvent> sound(int lineId) {
+        return lineId == FALLBACK_LINE ? ClimpSoundEvents.CLIMP_IDLE_1 : SOUNDS[lineId];
     }
 }
@@ -1,19 +1,23 @@
 package com.asbjborg.climp.speech;
 
-import java.util.EnumMap;
-import java.util.Map;
+import java.util.Arrays;
+
+import javax.annotation.Nullable;
 
 import com.asbjborg.climp.entity.ClimpEntity;
-import com.asbjborg.climp.sound.ClimpSoundEvents;
+import com.asbjborg.climp.entity.ClimpLevelSystem;
+import com.asbjborg.climp.entity.ClimpTimerWheel;
+import com.asbjborg.climp.network.ClimpFeedbackOutput;
 
-import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.damagesource.DamageSource;
-import net.minecraft.world.entity.player.Player;
 
 /**
- * Handles Climp speech gating (rarity + cooldowns) and delivery.
+ * Handles Climp speech gating (rarity + cooldowns) and delivery. The next idle-speech check is a timer
+ * on the level's {@link ClimpTimerWheel}, and with no player in speech range it is not rescheduled at
+ * all until the {@link ClimpLevelSystem} pass sees one arrive, so a quiet Climp costs nothing per tick.
+ * Whether a line may reach a player at all is up to the level's {@link ClimpSpeechCoordinator}.
  */
 public final class ClimpSpeechManager {
     public enum TaskFailureReason {
@@ -21,27 +25,68 @@ public final class ClimpSpeechManager {
         TARGET_REMOVED
     }
 
-    private int idleCooldownTicks = 20 * 20;
-    private int hitCooldownTicks = 0;
-    private final Map<ClimpSpeechType, String> lastSoundIdByType = new EnumMap<>(ClimpSpeechType.class);
+    public static final double IDLE_SPEECH_RADIUS = 7.0D;
+
+    private static final int FIRST_IDLE_CHECK_TICKS = 20 * 20;
+    private static final int IDLE_RECHECK_TICKS = 20 * 2;
+    private static final int HIT_COOLDOWN_TICKS = 20 * 8;
+
+    @Nullable
+    private ClimpTimerWheel.Timer idleCheck;
+    private boolean waitingForListener;
+    private long hitCooldownUntil;
+    // Last line id spoken per speech type, indexed by ordinal.
+    private final int[] lastLineByType = new int[ClimpSpeechType.values().length];
+
+    public ClimpSpeechManager() {
+        Arrays.fill(lastLineByType, ClimpSpeechLibrary.NO_LINE);
+    }
+
+    /**
+     * Starts the idle-speech timer. Called when Climp joins a server level.
+     */
+    public void arm(ClimpEntity climp) {
+        if (idleCheck == null || !idleCheck.isPending()) {
+            scheduleIdleCheck(climp, FIRST_IDLE_CHECK_TICKS);
+        }
+    }
+
+    /**
+     * Cancels the idle-speech timer. Called when Climp leaves its level or goes dormant.
+     */
+    public void disarm() {
+        if (idleCheck != null) {
+            idleCheck.cancel();
+            idleCheck = null;
+        }
+        waitingForListener = false;
+    }
+
+    /**
+     * Whether idle speech is parked until a player comes within {@link #IDLE_SPEECH_RADIUS}.
+     */
+    public boolean isWaitingForListener() {
+        return waitingForListener;
+    }
 
-    public void tick(ClimpEntity climp) {
-        if (hitCooldownTicks > 0) {
-            hitCooldownTicks--;
+    /**
+     * Resumes parked idle speech. Called by the level pass once a player is within speech range.
+     */
+    public void onListenerNearby(ClimpEntity climp) {
+        if (waitingForListener) {
+            scheduleIdleCheck(climp, IDLE_RECHECK_TICKS);
         }
-        tryIdleSpeech(climp);
     }
 
     public void onHit(ClimpEntity climp, DamageSource source, boolean didHurt) {
-        if (!didHurt || climp.level().isClientSide || hitCooldownTicks > 0) {
+        if (!didHurt || climp.level().isClientSide || climp.level().getGameTime() < hitCooldownUntil) {
             return;
         }
 
-        if (source.getEntity() instanceof ServerPlayer player) {
-            send(climp, player, ClimpSpeechType.HIT, pickLine(ClimpSpeechType.HIT, climp));
-            hitCooldownTicks = 20 * 8;
+        if (source.getEntity() instanceof ServerPlayer player && send(climp, player, ClimpSpeechType.HIT)) {
+            hitCooldownUntil = climp.level().getGameTime() + HIT_COOLDOWN_TICKS;
             // Delay idle chatter for a bit after a hit reaction.
-            idleCooldownTicks = Math.max(idleCooldownTicks, 20 * 10);
+            deferIdleSpeech(climp, 20 * 10);
         }
     }
 
@@ -49,17 +94,17 @@ public final class ClimpSpeechManager {
         if (climp.level().isClientSide) {
             return;
         }
-        send(climp, player, ClimpSpeechType.TASK_START, pickLine(ClimpSpeechType.TASK_START, climp));
+        send(climp, player, ClimpSpeechType.TASK_START);
         // Pause idle chatter briefly so command speech is not immediately followed by idle text.
-        idleCooldownTicks = Math.max(idleCooldownTicks, 20 * 8);
+        deferIdleSpeech(climp, 20 * 8);
     }
 
     public void onTaskComplete(ClimpEntity climp, ServerPlayer player) {
         if (climp.level().isClientSide) {
             return;
         }
-        send(climp, player, ClimpSpeechType.TASK_COMPLETE, pickLine(ClimpSpeechType.TASK_COMPLETE, climp));
-        idleCooldownTicks = Math.max(idleCooldownTicks, 20 * 10);
+        send(climp, player, ClimpSpeechType.TASK_COMPLETE);
+        deferIdleSpeech(climp, 20 * 10);
     }
 
     public void onTaskFailed(ClimpEntity climp, ServerPlayer player, TaskFailureReason failureReason) {
@@ -70,47 +115,86 @@ public final class ClimpSpeechManager {
             case TARGET_REMOVED -> ClimpSpeechType.TASK_FAILED_TARGET_REMOVED;
             case UNREACHABLE -> ClimpSpeechType.TASK_FAILED_UNREACHABLE;
         };
-        send(climp, player, failureType, pickLine(failureType, climp));
-        idleCooldownTicks = Math.max(idleCooldownTicks, 20 * 10);
+        send(climp, player, failureType);
+        deferIdleSpeech(climp, 20 * 10);
     }
 
     private void tryIdleSpeech(ClimpEntity climp) {
-        if (climp.level().isClientSide || idleCooldownTicks-- > 0) {
+        idleCheck = null;
+        if (climp.isRemoved() || !(climp.level() instanceof ServerLevel level)) {
             return;
         }
 
         if (climp.hasCommandTask()) {
+            scheduleIdleCheck(climp, IDLE_RECHECK_TICKS);
+            return;
+        }
+
+        ServerPlayer player = ClimpLevelSystem.forLevel(level).nearestPlayer(level, climp, IDLE_SPEECH_RADIUS);
+        if (player == null) {
+            // Nobody to talk to: stay parked until the level pass sees a player in range.
+            waitingForListener = true;
             return;
         }
 
-        Player nearest = climp.level().getNearestPlayer(climp, 7.0D);
-        if (!(nearest instanceof ServerPlayer player) || nearest.isSpectator()) {
+        boolean climpIsSettled = climp.getNavigation().isDone() && climp.distanceToSqr(player) < 25.0D;
+        if (!climpIsSettled || climp.getRandom().nextInt(16) != 0 || !send(climp, player, ClimpSpeechType.IDLE)) {
+            scheduleIdleCheck(climp, 20 * 8);
             return;
         }
+        scheduleIdleCheck(climp, 20 * 35);
+    }
 
-        boolean climpIsSettled = climp.getNavigation().isDone() && climp.distanceToSqr(nearest) < 25.0D;
-        if (!climpIsSettled || climp.getRandom().nextInt(16) != 0) {
-            idleCooldownTicks = 20 * 8;
+    /**
+     * Pushes the next idle check out to at least {@code ticks} from now.
+     */
+    private void deferIdleSpeech(ClimpEntity climp, int ticks) {
+        if (idleCheck != null && idleCheck.remainingTicks() >= ticks) {
             return;
         }
+        scheduleIdleCheck(climp, ticks);
+    }
+
+    private void scheduleIdleCheck(ClimpEntity climp, int ticks) {
+        waitingForListener = false;
+        if (idleCheck != null) {
+            idleCheck.cancel();
+        }
+        if (climp.level() instanceof ServerLevel level) {
+            idleCheck = ClimpTimerWheel.forLevel(level).schedule(ticks, () -> tryIdleSpeech(climp));
+        }
+    }
 
-        send(climp, player, ClimpSpeechType.IDLE, pickLine(ClimpSpeechType.IDLE, climp));
-        idleCooldownTicks = 20 * 35;
+    private int pickLine(ClimpSpeechType type, ClimpEntity climp) {
+        return ClimpSpeechLibrary.randomLine(type, climp.getRandom(), lastLineByType[type.ordinal()]);
     }
 
-    private ClimpSpeechLibrary.Line pickLine(ClimpSpeechType type, ClimpEntity climp) {
-        return ClimpSpeechLibrary.randomLine(type, climp.getRandom(), lastSoundIdByType.get(type));
+    /**
+     * Speaks a line of the type to the player if the coordinator lets this Climp have the player's ear.
+     */
+    private boolean send(ClimpEntity climp, ServerPlayer player, ClimpSpeechType type) {
+        ClimpFeedbackOutput.Priority priority = priorityOf(type);
+        if (!(climp.level() instanceof ServerLevel level)
+                || !ClimpSpeechCoordinator.forLevel(level).trySpeak(climp, player, priority)) {
+            return false;
+        }
+        int lineId = pickLine(type, climp);
+        lastLineByType[type.ordinal()] = lineId;
+        ClimpFeedbackOutput.queueLine(
+                player,
+                climp,
+                priority,
+                ClimpSpeechLibrary.message(lineId),
+                ClimpSpeechLibrary.sound(lineId));
+        return true;
     }
 
-    private void send(ClimpEntity climp, ServerPlayer player, ClimpSpeechType type, ClimpSpeechLibrary.Line line) {
-        lastSoundIdByType.put(type, line.soundId());
-        player.sendSystemMessage(Component.literal("Climp: " + line.text()));
-        climp.level().playSound(
-                null,
-                climp.blockPosition(),
-                ClimpSoundEvents.get(line.soundId()).value(),
-                SoundSource.NEUTRAL,
-                1.0f,
-                1.0f);
+    private static ClimpFeedbackOutput.Priority priorityOf(ClimpSpeechType type) {
+        return switch (type) {
+            case IDLE -> ClimpFeedbackOutput.Priority.CHATTER;
+            case HIT -> ClimpFeedbackOutput.Priority.REACTION;
+            case TASK_START, TASK_COMPLETE, TASK_FAILED_UNREACHABLE, TASK_FAILED_TARGET_REMOVED ->
+                    ClimpFeedbackOutput.Priority.TASK_RESULT;
+        };
     }
 }
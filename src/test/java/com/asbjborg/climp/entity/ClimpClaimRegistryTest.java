@@ -0,0 +1,99 @@
+package com.asbjborg.climp.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.BlockPos;
+
+class ClimpClaimRegistryTest {
+    private static final long CLAIM_LIFETIME_TICKS = 20 * 60 * 5;
+    private static final UUID ALICE = new UUID(0L, 1L);
+    private static final UUID BOB = new UUID(0L, 2L);
+    private static final BlockPos A = new BlockPos(0, 64, 0);
+    private static final BlockPos B = new BlockPos(0, 65, 0);
+    private static final BlockPos C = new BlockPos(1, 65, 0);
+
+    @Test
+    void claimsHeldByAnotherTaskAreRefused() {
+        ClimpClaimRegistry registry = new ClimpClaimRegistry();
+        long first = ClimpClaimRegistry.newTaskId();
+        long second = ClimpClaimRegistry.newTaskId();
+
+        assertEquals(List.of(A, B), registry.claimAll(List.of(A, B), ALICE, first, 0L));
+        // Same owner, different task: still refused.
+        assertEquals(List.of(C), registry.claimAll(List.of(B, C), ALICE, second, 10L));
+        assertFalse(registry.claim(A, BOB, ClimpClaimRegistry.newTaskId(), 20L));
+
+        assertEquals(first, registry.holderOf(B, 20L).taskId());
+        assertEquals(ALICE, registry.holderOf(B, 20L).ownerId());
+        assertEquals(second, registry.holderOf(C, 20L).taskId());
+    }
+
+    @Test
+    void expiredClaimsCanBeTakenOver() {
+        ClimpClaimRegistry registry = new ClimpClaimRegistry();
+        long first = ClimpClaimRegistry.newTaskId();
+        long second = ClimpClaimRegistry.newTaskId();
+        registry.claimAll(List.of(A), ALICE, first, 0L);
+
+        assertFalse(registry.claim(A, BOB, second, CLAIM_LIFETIME_TICKS - 1L));
+        assertNull(registry.holderOf(A, CLAIM_LIFETIME_TICKS));
+        assertTrue(registry.claim(A, BOB, second, CLAIM_LIFETIME_TICKS));
+        assertEquals(second, registry.holderOf(A, CLAIM_LIFETIME_TICKS).taskId());
+        // The original task lost it and cannot take it back while the new claim is live.
+        assertFalse(registry.claim(A, ALICE, first, CLAIM_LIFETIME_TICKS + 1L));
+    }
+
+    @Test
+    void releasingATaskKeepsClaimsTakenOverFromIt() {
+        ClimpClaimRegistry registry = new ClimpClaimRegistry();
+        long first = ClimpClaimRegistry.newTaskId();
+        long second = ClimpClaimRegistry.newTaskId();
+        registry.claimAll(List.of(A, B), ALICE, first, 0L);
+        assertTrue(registry.claim(A, BOB, second, CLAIM_LIFETIME_TICKS));
+
+        registry.releaseTask(first);
+
+        assertEquals(second, registry.holderOf(A, CLAIM_LIFETIME_TICKS).taskId());
+        assertNull(registry.holderOf(B, 0L));
+        registry.releaseTask(second);
+        assertNull(registry.holderOf(A, CLAIM_LIFETIME_TICKS));
+    }
+
+    @Test
+    void reclaimingRenewsTheTasksOwnClaim() {
+        ClimpClaimRegistry registry = new ClimpClaimRegistry();
+        long first = ClimpClaimRegistry.newTaskId();
+        registry.claimAll(List.of(A), ALICE, first, 0L);
+
+        assertTrue(registry.claim(A, ALICE, first, 5000L));
+        assertFalse(registry.claim(A, BOB, ClimpClaimRegistry.newTaskId(), CLAIM_LIFETIME_TICKS + 100L));
+        assertEquals(first, registry.holderOf(A, CLAIM_LIFETIME_TICKS + 100L).taskId());
+    }
+
+    @Test
+    void releaseOnlyDropsTheTasksOwnClaims() {
+        ClimpClaimRegistry registry = new ClimpClaimRegistry();
+        long first = ClimpClaimRegistry.newTaskId();
+        long second = ClimpClaimRegistry.newTaskId();
+        registry.claimAll(List.of(A, B), ALICE, first, 0L);
+        registry.claimAll(List.of(C), BOB, second, 0L);
+
+        registry.release(A, second);
+        assertEquals(first, registry.holderOf(A, 1L).taskId());
+        registry.release(A, first);
+        assertNull(registry.holderOf(A, 1L));
+
+        registry.releaseTask(first);
+        assertNull(registry.holderOf(B, 1L));
+        assertEquals(second, registry.holderOf(C, 1L).taskId());
+        assertEquals(List.of(A, B), registry.claimAll(List.of(A, B), BOB, ClimpClaimRegistry.newTaskId(), 2L));
+    }
+}
@@ -0,0 +1,134 @@
+package com.asbjborg.climp.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ClimpTimerWheelTest {
+    private static final int MAX_DELAY_TICKS = (1 << 24) - 1;
+
+    @Test
+    void timersAcrossWheelBoundariesFireOnceAtTheirDeadline() {
+        int[] delays = {1, 2, 63, 64, 65, 127, 128, 4095, 4096, 4097, 5000, 262143, 262144, 262145, 300000};
+        // Start off a slot boundary so cascades happen part-way through each timer's delay.
+        for (int offset : new int[] {0, 37, 4095}) {
+            ClimpTimerWheel wheel = new ClimpTimerWheel();
+            advance(wheel, offset);
+
+            int[] firedAt = new int[delays.length];
+            int[] fireCount = new int[delays.length];
+            int[] now = {0};
+            for (int i = 0; i < delays.length; i++) {
+                int index = i;
+                wheel.schedule(delays[i], () -> {
+                    firedAt[index] = now[0];
+                    fireCount[index]++;
+                });
+            }
+            for (now[0] = 1; now[0] <= 300000 + 64; now[0]++) {
+                wheel.advance();
+            }
+
+            for (int i = 0; i < delays.length; i++) {
+                assertEquals(1, fireCount[i], "fire count for delay " + delays[i] + " at offset " + offset);
+                assertEquals(delays[i], firedAt[i], "fire tick for delay " + delays[i] + " at offset " + offset);
+            }
+        }
+    }
+
+    @Test
+    void remainingTicksCountsDown() {
+        ClimpTimerWheel wheel = new ClimpTimerWheel();
+        ClimpTimerWheel.Timer timer = wheel.schedule(100, () -> {
+        });
+        advance(wheel, 40);
+
+        assertTrue(timer.isPending());
+        assertEquals(60, timer.remainingTicks());
+        advance(wheel, 60);
+        assertFalse(timer.isPending());
+        assertEquals(0, timer.remainingTicks());
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        ClimpTimerWheel wheel = new ClimpTimerWheel();
+        List<Integer> fired = new ArrayList<>();
+        ClimpTimerWheel.Timer near = wheel.schedule(10, () -> fired.add(10));
+        ClimpTimerWheel.Timer far = wheel.schedule(5000, () -> fired.add(5000));
+        wheel.schedule(20, () -> fired.add(20));
+        near.cancel();
+        advance(wheel, 100);
+        // Cancelled after it was already cascaded out of the coarser wheels.
+        far.cancel();
+        advance(wheel, 5000);
+
+        assertEquals(List.of(20), fired);
+        assertFalse(near.isPending());
+        assertFalse(far.isPending());
+        assertEquals(0, far.remainingTicks());
+    }
+
+    @Test
+    void cancellingAFiredTimerDoesNothing() {
+        ClimpTimerWheel wheel = new ClimpTimerWheel();
+        int[] fired = {0};
+        ClimpTimerWheel.Timer timer = wheel.schedule(3, () -> fired[0]++);
+        advance(wheel, 3);
+        timer.cancel();
+        advance(wheel, 100);
+
+        assertEquals(1, fired[0]);
+        assertFalse(timer.isPending());
+    }
+
+    @Test
+    void timerScheduledFromACallbackFiresOnALaterTick() {
+        ClimpTimerWheel wheel = new ClimpTimerWheel();
+        int[] now = {0};
+        List<Integer> fired = new ArrayList<>();
+        wheel.schedule(64, () -> {
+            fired.add(now[0]);
+            wheel.schedule(1, () -> fired.add(now[0]));
+        });
+        for (now[0] = 1; now[0] <= 70; now[0]++) {
+            wheel.advance();
+        }
+
+        assertEquals(List.of(64, 65), fired);
+    }
+
+    @Test
+    void delaysAreClampedToTheSupportedRange() {
+        ClimpTimerWheel wheel = new ClimpTimerWheel();
+        int[] fired = new int[3];
+        ClimpTimerWheel.Timer zero = wheel.schedule(0, () -> fired[0]++);
+        ClimpTimerWheel.Timer negative = wheel.schedule(-20, () -> fired[1]++);
+        ClimpTimerWheel.Timer huge = wheel.schedule(Integer.MAX_VALUE, () -> fired[2]++);
+
+        assertEquals(1, zero.remainingTicks());
+        assertEquals(1, negative.remainingTicks());
+        assertEquals(MAX_DELAY_TICKS, huge.remainingTicks());
+
+        advance(wheel, 1);
+        assertEquals(1, fired[0]);
+        assertEquals(1, fired[1]);
+
+        advance(wheel, MAX_DELAY_TICKS - 2);
+        assertEquals(0, fired[2]);
+        assertEquals(1, huge.remainingTicks());
+        advance(wheel, 1);
+        assertEquals(1, fired[2]);
+    }
+
+    private static void advance(ClimpTimerWheel wheel, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.advance();
+        }
+    }
+}
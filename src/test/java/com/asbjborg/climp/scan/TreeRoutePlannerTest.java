@@ -0,0 +1,148 @@
+package com.asbjborg.climp.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.BlockPos;
+
+class TreeRoutePlannerTest {
+    @Test
+    void leaningTrunkIsBrokenAfterWhatItRestsOn() {
+        // Leans one block per log, so its logs fall into several standing-spot groups.
+        List<BlockPos> logs = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            logs.add(new BlockPos(i, 64 + i, 0));
+        }
+        // A second, straight column sharing the base, so groups interleave along the walk.
+        for (int y = 65; y < 76; y++) {
+            logs.add(new BlockPos(0, y, 0));
+        }
+
+        List<BlockPos> route = plan(logs);
+
+        assertRoutesEveryLog(logs, route);
+        assertSupportOrder(route);
+    }
+
+    @Test
+    void spreadingCanopyKeepsSupportOrder() {
+        List<BlockPos> logs = new ArrayList<>();
+        for (int y = 64; y < 72; y++) {
+            logs.add(new BlockPos(0, y, 0));
+            logs.add(new BlockPos(1, y, 0));
+            logs.add(new BlockPos(0, y, 1));
+            logs.add(new BlockPos(1, y, 1));
+        }
+        for (int step = 1; step <= 6; step++) {
+            int y = 71 + step;
+            logs.add(new BlockPos(1 + step, y, 0));
+            logs.add(new BlockPos(-step, y, 1));
+            logs.add(new BlockPos(0, y, 1 + step));
+            logs.add(new BlockPos(1, y, -step));
+        }
+
+        List<BlockPos> route = plan(logs);
+
+        assertRoutesEveryLog(logs, route);
+        assertSupportOrder(route);
+    }
+
+    @Test
+    void randomTreesKeepSupportOrder() {
+        for (int seed = 0; seed < 200; seed++) {
+            List<BlockPos> logs = growTree(new Random(seed), 20 + seed);
+
+            List<BlockPos> route = plan(logs);
+
+            assertRoutesEveryLog(logs, route);
+            assertSupportOrder(route);
+        }
+    }
+
+    @Test
+    void smallOrUnresolvedClustersAreReturnedUnchanged() {
+        List<BlockPos> pair = List.of(new BlockPos(0, 64, 0), new BlockPos(0, 65, 0));
+        ClusterAnchorResolution small = ClusterAnchorResolution.resolved(pair, 2, 0, members(pair));
+        ClusterAnchorResolution tooLarge = ClusterAnchorResolution.tooLarge(5000, 0);
+
+        assertSame(small, TreeRoutePlanner.plan(small));
+        assertSame(tooLarge, TreeRoutePlanner.plan(tooLarge));
+    }
+
+    /**
+     * Orders the logs the way a scan hands them over (anchor, the lowest log, first; then by Y) and
+     * plans the route.
+     */
+    private static List<BlockPos> plan(List<BlockPos> logs) {
+        List<BlockPos> ordered = new ArrayList<>(logs);
+        ordered.sort(Comparator.comparingInt(BlockPos::getY));
+        ClusterAnchorResolution resolution = ClusterAnchorResolution.resolved(ordered, ordered.size(), 0, members(ordered));
+        return TreeRoutePlanner.plan(resolution).orderedTargets();
+    }
+
+    /**
+     * Each new log grows on top of a random existing one, straight up or leaning one block sideways.
+     */
+    private static List<BlockPos> growTree(Random random, int size) {
+        List<BlockPos> logs = new ArrayList<>();
+        HashSet<BlockPos> taken = new HashSet<>();
+        logs.add(new BlockPos(0, 64, 0));
+        taken.add(logs.get(0));
+        while (logs.size() < size) {
+            BlockPos below = logs.get(random.nextInt(logs.size()));
+            BlockPos log = new BlockPos(
+                    below.getX() + random.nextInt(3) - 1,
+                    below.getY() + 1,
+                    below.getZ() + random.nextInt(3) - 1);
+            if (taken.add(log)) {
+                logs.add(log);
+            }
+        }
+        return logs;
+    }
+
+    private static long[] members(List<BlockPos> logs) {
+        long[] members = new long[logs.size()];
+        for (int i = 0; i < logs.size(); i++) {
+            members[i] = logs.get(i).asLong();
+        }
+        return members;
+    }
+
+    private static void assertRoutesEveryLog(List<BlockPos> logs, List<BlockPos> route) {
+        assertEquals(logs.size(), route.size());
+        assertEquals(new HashSet<>(logs), new HashSet<>(route));
+        BlockPos lowest = logs.stream().min(Comparator.comparingInt(BlockPos::getY)).orElseThrow();
+        assertEquals(lowest, route.get(0), "anchor first");
+    }
+
+    /**
+     * Every log comes after each log it rests on, directly or diagonally below.
+     */
+    private static void assertSupportOrder(List<BlockPos> route) {
+        Map<BlockPos, Integer> position = new HashMap<>();
+        for (int i = 0; i < route.size(); i++) {
+            position.put(route.get(i), i);
+        }
+        for (int i = 0; i < route.size(); i++) {
+            BlockPos log = route.get(i);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    Integer supporter = position.get(new BlockPos(log.getX() + dx, log.getY() - 1, log.getZ() + dz));
+                    assertTrue(supporter == null || supporter < i, log + " is routed before a log it rests on");
+                }
+            }
+        }
+    }
+}
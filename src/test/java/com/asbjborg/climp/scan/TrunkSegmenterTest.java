@@ -0,0 +1,133 @@
+package com.asbjborg.climp.scan;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import net.minecraft.core.BlockPos;
+
+class TrunkSegmenterTest {
+    private static final int GROUND_Y = 63;
+    private static final int LIMIT = 4096;
+
+    @Test
+    void touchingCanopiesAreSplitAtTheNearerTrunk() {
+        FakeLogs logs = new FakeLogs();
+        logs.column(0, 0, 64, 69);
+        logs.column(5, 0, 64, 69);
+        // The branches meet between the trunks: (2,71) and (3,71) touch.
+        logs.add(1, 70, 0).add(2, 71, 0);
+        logs.add(4, 70, 0).add(3, 71, 0);
+
+        Set<BlockPos> left = targets(TreeClusterScanner.resolve(logs, new BlockPos(0, 66, 0), LIMIT, LIMIT, true));
+        Set<BlockPos> right = targets(TreeClusterScanner.resolve(logs, new BlockPos(5, 66, 0), LIMIT, LIMIT, true));
+
+        Set<BlockPos> expectedLeft = new FakeLogs().column(0, 0, 64, 69).add(1, 70, 0).add(2, 71, 0).positions();
+        Set<BlockPos> expectedRight = new FakeLogs().column(5, 0, 64, 69).add(4, 70, 0).add(3, 71, 0).positions();
+        assertEquals(expectedLeft, left);
+        assertEquals(expectedRight, right);
+    }
+
+    @Test
+    void withoutSegmentationTouchingTreesAreOneCluster() {
+        FakeLogs logs = new FakeLogs();
+        logs.column(0, 0, 64, 69);
+        logs.column(5, 0, 64, 69);
+        logs.add(1, 70, 0).add(2, 71, 0);
+        logs.add(4, 70, 0).add(3, 71, 0);
+
+        Set<BlockPos> cluster = targets(TreeClusterScanner.resolve(logs, new BlockPos(0, 66, 0), LIMIT, LIMIT, false));
+
+        assertEquals(logs.positions(), cluster);
+    }
+
+    @Test
+    void wideTrunkIsOneTree() {
+        FakeLogs logs = new FakeLogs();
+        logs.column(0, 0, 64, 70).column(1, 0, 64, 70).column(0, 1, 64, 70).column(1, 1, 64, 70);
+        logs.column(6, 0, 64, 68);
+        logs.add(2, 71, 0).add(3, 72, 0);
+        logs.add(5, 69, 0).add(4, 70, 0);
+
+        Set<BlockPos> cluster = targets(TreeClusterScanner.resolve(logs, new BlockPos(1, 64, 1), LIMIT, LIMIT, true));
+
+        Set<BlockPos> expected = new FakeLogs()
+                .column(0, 0, 64, 70).column(1, 0, 64, 70).column(0, 1, 64, 70).column(1, 1, 64, 70)
+                .add(2, 71, 0).add(3, 72, 0)
+                .positions();
+        assertEquals(expected, cluster);
+    }
+
+    @Test
+    void unrootedLogsFallBackToThePlainFill() {
+        FakeLogs logs = new FakeLogs();
+        logs.column(0, 0, 80, 84);
+        logs.column(3, 0, 80, 84);
+        logs.add(1, 85, 0).add(2, 85, 0);
+
+        TrunkSegmenter segmenter = new TrunkSegmenter(logs, new BlockPos(0, 82, 0));
+        Set<BlockPos> cluster = targets(TreeClusterScanner.resolve(logs, new BlockPos(0, 82, 0), LIMIT, LIMIT, true));
+
+        assertFalse(segmenter.hasOwnTrunk());
+        assertEquals(logs.positions(), cluster);
+    }
+
+    @Test
+    void branchesGoToTheNearestKnownTrunk() {
+        FakeLogs logs = new FakeLogs();
+        logs.column(0, 0, 64, 69);
+        logs.column(5, 0, 64, 69);
+        TrunkSegmenter segmenter = new TrunkSegmenter(logs, new BlockPos(0, 64, 0));
+
+        assertTrue(segmenter.hasOwnTrunk());
+        assertTrue(segmenter.accepts(0, 69, 0));
+        // The other trunk is not known yet, so every branch is ours for now.
+        assertTrue(segmenter.accepts(4, 70, 0));
+        assertFalse(segmenter.accepts(5, 67, 0));
+        assertTrue(segmenter.belongsToOwnTrunk(BlockPos.asLong(2, 70, 0)));
+        assertFalse(segmenter.belongsToOwnTrunk(BlockPos.asLong(4, 70, 0)));
+    }
+
+    private static Set<BlockPos> targets(ClusterAnchorResolution resolution) {
+        assertEquals(ClusterAnchorResolution.State.RESOLVED, resolution.state());
+        return new HashSet<>(resolution.orderedTargets());
+    }
+
+    /**
+     * Logs at the given positions on flat ground at {@link #GROUND_Y}.
+     */
+    private static final class FakeLogs implements LogLookup {
+        private final Set<BlockPos> logs = new HashSet<>();
+
+        FakeLogs add(int x, int y, int z) {
+            this.logs.add(new BlockPos(x, y, z));
+            return this;
+        }
+
+        FakeLogs column(int x, int z, int fromY, int toY) {
+            for (int y = fromY; y <= toY; y++) {
+                this.add(x, y, z);
+            }
+            return this;
+        }
+
+        Set<BlockPos> positions() {
+            return this.logs;
+        }
+
+        @Override
+        public boolean isLog(int x, int y, int z) {
+            return this.logs.contains(new BlockPos(x, y, z));
+        }
+
+        @Override
+        public boolean isTrunkFooting(int x, int y, int z) {
+            return y == GROUND_Y;
+        }
+    }
+}